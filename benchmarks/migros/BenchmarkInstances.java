@@ -0,0 +1,40 @@
+package migros;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Loads the instances the benchmarks run on. Names starting with "input" are read from the shipped
+ * input files in the working directory, "random" followed by a node count creates uniformly distributed
+ * nodes in the unit square from a fixed seed, so every run sees the same instance.
+ */
+final class BenchmarkInstances {
+    static final long SEED = 20240513L;  // Seed of the generated instances and of the benchmarks' random draws
+
+    private BenchmarkInstances() {
+    }
+
+    /**
+     * Loads an instance by name.
+     * @param name the instance name, such as "input05" or "random1000"
+     * @return the node locations of the instance
+     */
+    static List<Pair> load(String name) {
+        if (name.startsWith("random")) {
+            int nodeCount = Integer.parseInt(name.substring("random".length()));
+            Random random = new Random(SEED + nodeCount);
+            List<Pair> nodes = new ArrayList<>(nodeCount);
+            for (int i = 0; i < nodeCount; i++) {
+                nodes.add(new Pair(random.nextDouble(), random.nextDouble()));
+            }
+            return nodes;
+        }
+        try {
+            return Solver.readTXT(name + ".txt");
+        } catch (IOException e) {
+            throw new IllegalStateException("Benchmarks must run from the project directory to find " + name, e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package migros;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures tour construction: a single {@link Ant#selectNextNode} step and a complete ant tour,
+ * on the pheromone levels of a fresh colony.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Xmx6g")
+public class ConstructionBenchmark {
+    @Param({"input01", "input02", "input03", "input04", "input05", "random100", "random1000", "random10000"})
+    private String instance;
+
+    private EdgeMatrix distanceMatrix;
+    private ChoiceInfo choiceInfo;
+    private Ant ant;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        List<Pair> nodes = BenchmarkInstances.load(instance);
+        distanceMatrix = new ProblemInstance(nodes, new SolverConfig()).getDistanceMatrix();
+        choiceInfo = new ChoiceInfo(distanceMatrix, 0.8, 5, MatrixStorage.FLAT);
+        choiceInfo.update(Solver.createPheromoneMatrix(nodes.size(), MatrixStorage.FLAT));
+        ant = new Ant(0, nodes.size());
+        random = new Random(BenchmarkInstances.SEED);  // Every fork builds the same tours
+    }
+
+    /**
+     * One step of an ant, starting a new tour whenever the previous one is complete.
+     * The reset costs O(n) once every n steps.
+     */
+    @Benchmark
+    public Ant selectNextNode() {
+        if (ant.allNodesVisited()) {
+            ant.reset(0);
+        }
+        ant.selectNextNode(choiceInfo, distanceMatrix, random);
+        return ant;
+    }
+
+    /**
+     * A complete closed tour of one ant.
+     */
+    @Benchmark
+    public double antTour() {
+        ant.reset(0);
+        while (!ant.allNodesVisited()) {
+            ant.selectNextNode(choiceInfo, distanceMatrix, random);
+        }
+        ant.moveToNextNode(0, distanceMatrix);
+        return ant.getPathLength();
+    }
+}
@@ -0,0 +1,42 @@
+package migros;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building the distance matrix of an instance.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Xmx6g")
+public class DistanceMatrixBenchmark {
+    @Param({"input01", "input02", "input03", "input04", "input05", "random100", "random1000", "random10000"})
+    private String instance;
+
+    private List<Pair> nodes;
+
+    @Setup
+    public void setUp() {
+        nodes = BenchmarkInstances.load(instance);
+    }
+
+    @Benchmark
+    public EdgeMatrix createDistanceMatrix() {
+        return ProblemInstance.createDistanceMatrix(nodes, MatrixStorage.FLAT, false);
+    }
+}
@@ -0,0 +1,119 @@
+package migros;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the pheromone update of one iteration: the deposit of a colony of 50 ants built once,
+ * and the evaporation followed by the refresh of the choice table, on a plain matrix and on the
+ * lazily evaporated {@link PheromoneStore} the solver uses.
+ * The levels start at 1 in every measurement iteration and stay near it: deposit and evaporate undo
+ * their previous invocation every other call, and lazyUpdate deposits and evaporates like a solve,
+ * so the levels settle instead of drifting into subnormals or growing without bound.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Xmx6g")
+public class PheromoneBenchmark {
+    private static final int ANT_COUNT = 50;
+
+    @Param({"input01", "input02", "input03", "input04", "input05", "random100", "random1000", "random10000"})
+    private String instance;
+
+    private EdgeMatrix distanceMatrix;
+    private EdgeMatrix pheromoneMatrix;
+    private ChoiceInfo choiceInfo;
+    private Ant[] ants;
+    private PheromoneStore pheromoneStore;
+    private ChoiceInfo storeChoiceInfo;
+    private boolean undo;  // Whether the next deposit or evaporation reverts the previous one
+
+    @Setup
+    public void setUp() {
+        List<Pair> nodes = BenchmarkInstances.load(instance);
+        distanceMatrix = new ProblemInstance(nodes, new SolverConfig()).getDistanceMatrix();
+        pheromoneMatrix = Solver.createPheromoneMatrix(nodes.size(), MatrixStorage.FLAT);
+        choiceInfo = new ChoiceInfo(distanceMatrix, 0.8, 5, MatrixStorage.FLAT);
+        choiceInfo.update(pheromoneMatrix);
+        ants = new Ant[ANT_COUNT];
+        Random random = new Random(BenchmarkInstances.SEED);
+        for (int j = 0; j < ANT_COUNT; j++) {
+            ants[j] = new Ant(0, nodes.size());
+            while (!ants[j].allNodesVisited()) {
+                ants[j].selectNextNode(choiceInfo, distanceMatrix, random);
+            }
+            ants[j].moveToNextNode(0, distanceMatrix);
+        }
+        pheromoneStore = new PheromoneStore(MatrixStorage.FLAT, nodes.size());
+        storeChoiceInfo = new ChoiceInfo(distanceMatrix, 0.8, 5, MatrixStorage.FLAT);
+    }
+
+    /**
+     * Restores the starting pheromone levels before every measurement iteration.
+     */
+    @Setup(Level.Iteration)
+    public void resetLevels() {
+        pheromoneMatrix.fill(1.0);
+        choiceInfo.update(pheromoneMatrix);
+        pheromoneStore.fill(1.0);
+        storeChoiceInfo.update(pheromoneStore);
+        undo = false;
+    }
+
+    /**
+     * Deposit of every ant of the colony.
+     */
+    @Benchmark
+    public EdgeMatrix deposit() {
+        // Every other call takes the previous deposit back, at the same cost
+        double Q = undo ? -0.1 : 0.1;
+        undo = !undo;
+        for (Ant ant : ants) {
+            ant.updatePheromones(pheromoneMatrix, Q, distanceMatrix);
+        }
+        return pheromoneMatrix;
+    }
+
+    /**
+     * Evaporation of every edge followed by the refresh of the selection weights.
+     */
+    @Benchmark
+    public ChoiceInfo evaporate() {
+        // Every other call scales the levels back up, at the same cost
+        pheromoneMatrix.scale(undo ? 1 / 0.9 : 0.9);
+        undo = !undo;
+        choiceInfo.update(pheromoneMatrix);
+        return choiceInfo;
+    }
+
+    /**
+     * The whole update of one iteration on the pheromone store: deposit of every ant, lazy evaporation
+     * and refresh of the deposited edges of the choice table.
+     */
+    @Benchmark
+    public ChoiceInfo lazyUpdate() {
+        for (Ant ant : ants) {
+            ant.updatePheromones(pheromoneStore, 0.1, distanceMatrix);
+        }
+        pheromoneStore.scale(0.9);
+        storeChoiceInfo.update(pheromoneStore);
+        return storeChoiceInfo;
+    }
+}
@@ -0,0 +1,58 @@
+package migros;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a complete {@link Solver#antColonyOptimization()} run with the default parameters, seeded and
+ * on a single thread, so every run does the same work and results compare across machines and changes.
+ * The instance is built once and a new solver is created before every run so each one starts from
+ * fresh pheromone levels, file reading and distance matrix building are not part of the measurement.
+ * Unlike the other benchmarks this one leaves out random10000: a single default iteration on it takes about
+ * 16 s on one core, so one solve takes close to half an hour and a fork of 15 solves most of a night.
+ * The per-iteration work at that size is covered by the construction and pheromone benchmarks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 2, jvmArgsAppend = "-Xmx6g")
+public class SolveBenchmark {
+    @Param({"input01", "input02", "input03", "input04", "input05", "random100", "random1000"})
+    private String instance;
+
+    private ProblemInstance problem;
+    private SolverConfig config;
+    private Solver solver;
+
+    @Setup
+    public void loadInstance() {
+        config = new SolverConfig();
+        config.setSeed(BenchmarkInstances.SEED);  // Every run builds the same tours and local search moves
+        config.setThreadCount(1);  // Timings do not depend on the core count of the machine
+        problem = new ProblemInstance(BenchmarkInstances.load(instance), config);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetColony() {
+        solver = new Solver(problem, config);
+    }
+
+    @Benchmark
+    public int[] antColonyOptimization() {
+        return solver.antColonyOptimization();
+    }
+}
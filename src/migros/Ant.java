@@ -0,0 +1,286 @@
+package migros;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Represents an ant used in the Ant Colony Optimization algorithm.
+ * An ant simulates a path through a graph, collecting path lengths and contributing to the pheromone levels.
+ * All buffers are allocated once in the constructor, so a colony can {@link #reset(int)} and reuse the same
+ * ants in every iteration without allocating.
+ */
+public class Ant {
+    private int currentPosition;  // Current position of the ant on the graph
+    private final int[] pathTaken;  // Nodes visited in order, with room for the return to the start node
+    private int pathSize;  // Number of entries of pathTaken in use
+    private double pathLength;  // Total distance of the path taken
+    private final boolean[] visited;  // Tracks whether each node has been visited
+    private int visitedCount;  // Number of nodes marked in visited
+    private int startNode;  // The starting node of the path
+    private final double[] weights;  // Scratch buffer for the selection weights of a row
+    private final double[] cumulativeWeights;  // Scratch buffer for the prefix sums of the selection weights
+
+    /**
+     * Constructs an Ant with a specified start node and the total number of nodes.
+     * @param startNode the starting node index for the ant
+     * @param nodeCount the total number of nodes in the graph
+     */
+    public Ant(int startNode, int nodeCount) {
+        this.pathTaken = new int[nodeCount + 1];
+        this.visited = new boolean[nodeCount];
+        this.weights = new double[nodeCount];
+        this.cumulativeWeights = new double[nodeCount];
+        startTour(startNode);
+    }
+
+    /**
+     * Clears the tour of the ant so it can start a new one, keeping its buffers.
+     * @param startNode the starting node index for the new tour
+     */
+    public void reset(int startNode) {
+        startTour(startNode);
+    }
+
+    /**
+     * Starts an empty tour at a node, shared by the constructor and {@link #reset(int)}.
+     * @param startNode the starting node index for the new tour
+     */
+    private void startTour(int startNode) {
+        Arrays.fill(visited, false);
+        this.startNode = startNode;
+        this.currentPosition = startNode;
+        this.pathTaken[0] = startNode;
+        this.pathSize = 1;
+        this.visited[startNode] = true;
+        this.visitedCount = 1;
+        this.pathLength = 0;
+    }
+
+    /**
+     * Checks if all nodes have been visited by the ant.
+     * @return true if all nodes have been visited, false otherwise
+     */
+    public boolean allNodesVisited() {
+        return visitedCount == visited.length;
+    }
+
+    /**
+     * Selects the next node to visit based on pheromone levels and distances using a probabilistic approach.
+     * @param choiceInfo cached selection weights combining pheromone levels and distances
+     * @param distanceMatrix matrix representing distances between nodes
+     */
+    public void selectNextNode(ChoiceInfo choiceInfo, EdgeMatrix distanceMatrix) {
+        selectNextNode(choiceInfo, distanceMatrix, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Selects the next node to visit, drawing the roulette wheel value from the given random source.
+     * Ants built on different threads should each use their own source so they never contend on a shared one.
+     * The weights of the row are copied in one block, a single pass turns them into unnormalised prefix sums
+     * with the visited nodes weighing 0, and the draw, scaled by the total instead of normalising every weight,
+     * is looked up by binary search.
+     * @param choiceInfo cached selection weights combining pheromone levels and distances
+     * @param distanceMatrix matrix representing distances between nodes
+     * @param random the random source used for the roulette wheel selection
+     */
+    public void selectNextNode(ChoiceInfo choiceInfo, EdgeMatrix distanceMatrix, RandomGenerator random) {
+        choiceInfo.getRow(currentPosition, weights, cumulativeWeights);
+        double totalWeight = 0;
+        for (int i = 0; i < weights.length; i++) {
+            totalWeight += visited[i] ? 0 : weights[i];
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        int nextNode = sample(cumulativeWeights, weights.length, totalWeight, random);
+        moveToNextNode(nextNode >= 0 ? nextNode : bestUnvisitedNode(choiceInfo), distanceMatrix);
+    }
+
+    /**
+     * Selects the next node among the unvisited candidates of the current node.
+     * When every candidate has already been visited, the ant moves to the unvisited node
+     * with the highest selection weight, found by scanning all nodes.
+     * @param choiceInfo cached selection weights combining pheromone levels and distances
+     * @param distanceMatrix matrix representing distances between nodes
+     * @param candidateList the nearest neighbours of every node
+     * @param random the random source used for the roulette wheel selection
+     */
+    public void selectNextNode(ChoiceInfo choiceInfo, EdgeMatrix distanceMatrix, CandidateList candidateList, RandomGenerator random) {
+        int candidateCount = candidateList.getCandidateCount();
+
+        // Unnormalised prefix sums of the weights of the non-visited candidates, indexed by candidate rank
+        double totalWeight = 0;
+        for (int r = 0; r < candidateCount; r++) {
+            int node = candidateList.getCandidate(currentPosition, r);
+            totalWeight += visited[node] ? 0 : choiceInfo.get(currentPosition, node);
+            cumulativeWeights[r] = totalWeight;
+        }
+
+        int rank = sample(cumulativeWeights, candidateCount, totalWeight, random);
+        if (rank >= 0) {
+            moveToNextNode(candidateList.getCandidate(currentPosition, rank), distanceMatrix);
+        } else {
+            // No candidate left, fall back to the best unvisited node overall
+            moveToNextNode(bestUnvisitedNode(choiceInfo), distanceMatrix);
+        }
+    }
+
+    /**
+     * Draws an index from unnormalised prefix sums of weights: the first index whose prefix sum exceeds a
+     * uniform draw scaled by the total. Entries of weight 0 repeat the previous sum and are never drawn.
+     * @param cumulativeWeights the prefix sums, non-decreasing
+     * @param count the number of prefix sums in use
+     * @param totalWeight the last prefix sum
+     * @param random the random source
+     * @return the drawn index, or -1 when the total is not a positive finite number
+     */
+    private static int sample(double[] cumulativeWeights, int count, double totalWeight, RandomGenerator random) {
+        if (!(totalWeight > 0) || totalWeight == Double.POSITIVE_INFINITY) {
+            return -1;
+        }
+        // Rounding of the scaled draw must never reach the total, or no prefix sum would exceed it
+        double randomChoice = Math.min(random.nextDouble() * totalWeight, Math.nextDown(totalWeight));
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulativeWeights[middle] > randomChoice) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the unvisited node with the highest selection weight, the choice that is always possible.
+     * @param choiceInfo cached selection weights combining pheromone levels and distances
+     * @return the best unvisited node
+     */
+    private int bestUnvisitedNode(ChoiceInfo choiceInfo) {
+        int bestNode = -1;
+        double bestWeight = -1;
+        for (int i = 0; i < visited.length; i++) {
+            if (!visited[i]) {
+                double weight = choiceInfo.get(currentPosition, i);
+                if (bestNode < 0 || weight > bestWeight) {
+                    bestWeight = weight;
+                    bestNode = i;
+                }
+            }
+        }
+        return bestNode;
+    }
+
+    /**
+     * Moves the ant to the next node and updates the path length.
+     * @param nextNode the next node to move to
+     * @param distanceMatrix matrix representing distances between nodes
+     */
+    public void moveToNextNode(int nextNode, EdgeMatrix distanceMatrix) {
+        pathLength += distanceMatrix.get(currentPosition, nextNode);
+        pathTaken[pathSize++] = nextNode;
+        if (!visited[nextNode]) {
+            visited[nextNode] = true;
+            visitedCount++;
+        }
+        currentPosition = nextNode;
+    }
+
+    /**
+     * Runs a local search stage on the completed tour of the ant and takes over the improved length.
+     * @param improver the local search stage to run
+     * @param distanceMatrix matrix of distances between nodes
+     */
+    public void improveTour(TourImprover improver, EdgeMatrix distanceMatrix) {
+        pathLength = improver.improve(pathTaken, distanceMatrix);
+    }
+
+    /**
+     * Calculates the total distance for a given path.
+     * @param pathTaken array of node indices that form the path
+     * @param pathSize number of entries of pathTaken that belong to the path
+     * @param distanceMatrix matrix of distances between nodes
+     * @return the total distance of the path
+     */
+    public static double calculateTotalPathDistance(int[] pathTaken, int pathSize, EdgeMatrix distanceMatrix) {
+        double totalDistance = 0;
+        for (int i = 0; i < pathSize - 1; i++) {
+            totalDistance += distanceMatrix.get(pathTaken[i], pathTaken[i + 1]);
+        }
+        return totalDistance;
+    }
+
+    /**
+     * Updates pheromone levels on the paths taken by the ant.
+     * @param pheromoneMatrix matrix representing pheromone levels between nodes
+     * @param Q the amount of pheromone to deposit
+     * @param distanceMatrix matrix of distances between nodes
+     */
+    public void updatePheromones(EdgeMatrix pheromoneMatrix, double Q, EdgeMatrix distanceMatrix) {
+        double totalCycleDistance = calculateTotalPathDistance(pathTaken, pathSize, distanceMatrix);
+        depositPheromones(pathTaken, pathSize, pheromoneMatrix, Q / totalCycleDistance);
+    }
+
+    /**
+     * Deposits the same amount of pheromone on every edge of a path, in both directions.
+     * @param pathTaken array of node indices that form the path
+     * @param pathSize number of entries of pathTaken that belong to the path
+     * @param pheromoneMatrix matrix representing pheromone levels between nodes
+     * @param delta the amount of pheromone to deposit per edge
+     */
+    public static void depositPheromones(int[] pathTaken, int pathSize, EdgeMatrix pheromoneMatrix, double delta) {
+        // Apply pheromone deposit symmetrically for each edge in the path
+        boolean symmetric = pheromoneMatrix.isSymmetric();
+        for (int i = 0; i < pathSize - 1; i++) {
+            int node1 = pathTaken[i];
+            int node2 = pathTaken[i + 1];
+            pheromoneMatrix.add(node1, node2, delta);
+            if (!symmetric) {
+                pheromoneMatrix.add(node2, node1, delta);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the total path length traveled by the ant.
+     * This is the sum of the distances of all edges the ant has traversed in its current tour.
+     * 
+     * @return The total distance of the path taken by the ant.
+     */
+    public double getPathLength() {
+        return pathLength;
+    }
+
+    /**
+     * Returns the path taken by the ant.
+     * The array is the ant's own buffer and is overwritten by the next tour, copy it to keep it.
+     * Only the first {@link #getPathSize()} entries belong to the path.
+     * @return an array of node indices representing the path taken
+     */
+    public int[] getPathTaken() {
+        return pathTaken;
+    }
+
+    /**
+     * Returns the number of nodes on the path taken so far, including the start node.
+     * @return the number of valid entries in the path
+     */
+    public int getPathSize() {
+        return pathSize;
+    }
+
+    /**
+     * Returns a string representation of the ant's path and path length.
+     * @return a string describing the ant's current path and length
+     */
+    @Override
+    public String toString() {
+        return "Ant{" +
+                "pathTaken=" + Arrays.toString(Arrays.copyOf(pathTaken, pathSize)) +
+                ", pathLength=" + pathLength +
+                '}';
+    }
+}
+
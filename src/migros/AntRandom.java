@@ -0,0 +1,52 @@
+package migros;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A counter-based random source: the numbers an ant draws depend only on the solve seed, the iteration and
+ * the ant number, never on which thread builds the ant or what it built before. A solve with a seed is
+ * therefore bit-identical for any thread count. The generator is SplitMix64, whose whole state is one long,
+ * so switching to the stream of another ant is a reset without allocation.
+ * An instance is not thread safe, every thread building ants needs its own.
+ */
+public final class AntRandom implements RandomGenerator {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;  // Increment of the SplitMix64 sequence
+
+    private long state;  // Position in the current stream
+
+    /**
+     * Creates a source positioned at the stream of ant 0 in iteration 0 of a seed.
+     * @param seed the solve seed
+     */
+    public AntRandom(long seed) {
+        reset(seed, 0, 0);
+    }
+
+    /**
+     * Moves to the start of the stream of one ant in one iteration.
+     * @param seed the solve seed
+     * @param iteration the iteration the ant is built in
+     * @param ant the number of the ant in the colony
+     */
+    public void reset(long seed, int iteration, int ant) {
+        long key = mix(seed + GOLDEN_GAMMA * (iteration + 1L));
+        state = mix(key + GOLDEN_GAMMA * (ant + 1L));
+    }
+
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    /**
+     * Scrambles the bits of a value, the output function of SplitMix64.
+     * @param z the value to scramble
+     * @return the scrambled value
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,116 @@
+package migros;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The outcome of one instance file solved by {@link BatchSolver}.
+ */
+public final class BatchResult {
+    /**
+     * How a job ended.
+     */
+    public enum Status {
+        /** The solve finished, the path and length are set. */
+        SOLVED,
+        /** The solve did not finish within the job timeout, the path and length are the best found by then, if any. */
+        TIMEOUT,
+        /** The file could not be read or the solve failed, the message says why. */
+        FAILED
+    }
+
+    private final Path file;  // Instance file of the job
+    private final Status status;  // How the job ended
+    private final int nodeCount;  // Number of nodes, 0 if the file was not read
+    private final double length;  // Length of the best path, NaN if there is none
+    private final int[] path;  // Best path, null if there is none
+    private final long elapsedMillis;  // Time from the start of the job to its end
+    private final String message;  // Reason of a failure, null otherwise
+
+    /**
+     * Creates a result.
+     * @param file the instance file of the job
+     * @param status how the job ended
+     * @param nodeCount the number of nodes, 0 if the file was not read
+     * @param length the length of the best path, NaN if there is none
+     * @param path the best path, null if there is none
+     * @param elapsedMillis the time the job took
+     * @param message the reason of a failure, null otherwise
+     */
+    BatchResult(Path file, Status status, int nodeCount, double length, int[] path, long elapsedMillis, String message) {
+        this.file = file;
+        this.status = status;
+        this.nodeCount = nodeCount;
+        this.length = length;
+        this.path = path;
+        this.elapsedMillis = elapsedMillis;
+        this.message = message;
+    }
+
+    /**
+     * Returns the instance file of the job.
+     * @return the file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Returns how the job ended.
+     * @return the status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the number of nodes of the instance.
+     * @return the node count, 0 if the file was not read
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the length of the best path.
+     * @return the length, NaN if there is none
+     */
+    public double getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the best path of the job.
+     * @return a copy of the path, starting and ending at node 0, or null if there is none
+     */
+    public int[] getPath() {
+        return path == null ? null : path.clone();
+    }
+
+    /**
+     * Returns the time the job took, from the start of reading the file to the end of the solve.
+     * @return the elapsed milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Returns the reason of a failure.
+     * @return the message, null unless failed
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Formats the result as one tab-separated line: file, status, node count, length, milliseconds
+     * and the path, or the message when there is no path.
+     * @return the result line
+     */
+    @Override
+    public String toString() {
+        String detail = path != null ? Arrays.toString(path) : (message == null ? "" : message);
+        return file + "\t" + status + "\t" + nodeCount + "\t" + length + "\t" + elapsedMillis + "\t" + detail;
+    }
+}
@@ -0,0 +1,364 @@
+package migros;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Long-running batch mode solving many instance files with ACO in one JVM.
+ * Files are submitted to a bounded queue, {@link #submit} blocks while the queue is full so a fast reader
+ * cannot run ahead of the solvers. A fixed number of workers, one virtual thread each, take files from the
+ * queue, hand the solve to a pool of platform threads and wait at most the job timeout for it; a solve that
+ * times out is interrupted and reported as such, and its worker takes the next file once the interrupted solve
+ * has ended. The solves stay on platform threads because virtual threads are not preempted, so a CPU-bound
+ * solve would keep the waiting workers from noticing their timeouts.
+ * Every solve runs single-threaded, parallelism comes from solving several files at once.
+ * Results are handed to the sink as soon as each job ends, so they arrive in completion order.
+ * Job outcomes and the iteration statistics of every solve are recorded in the registry of {@link #getMetrics()}.
+ */
+public class BatchSolver {
+    private static final Path END_OF_INPUT = Path.of("");  // Marker telling a worker to stop
+
+    private final SolverConfig config;  // Parameters of every solve, single-threaded
+    private final long timeoutMillis;  // Time a job may take, 0 for no limit
+    private final Consumer<BatchResult> sink;  // Receives results as jobs end
+    private final ReentrantLock sinkLock = new ReentrantLock();  // One sink call at a time, without pinning the worker
+    private final BlockingQueue<Path> queue;  // Files waiting for a worker
+    private final ExecutorService jobs;  // Platform threads running the solves
+    private final Thread[] workers;  // Take files from the queue and wait for their solve
+    private final AtomicLong completed = new AtomicLong();  // Number of jobs ended, in any status
+    private final MetricsRegistry metrics = new MetricsRegistry();  // Job and iteration metrics of the batch
+    private final MetricsListener metricsListener = new MetricsListener(metrics);  // Shared by every solve
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;  // Set when the batch has finished
+    private volatile boolean closed;  // Set once no more files are accepted
+    private volatile Path renderDirectory;  // Directory receiving an image of every solved zone, null for none
+
+    /**
+     * Starts the workers of a batch.
+     * @param config The parameters of every solve, copied with the thread count set to 1.
+     * @param parallelism The number of files solved at the same time.
+     * @param queueCapacity The number of submitted files that may wait for a worker.
+     * @param timeoutMillis The time a single job may take, 0 for no limit.
+     * @param sink Receives the result of every job, called from the worker threads, one call at a time.
+     *             A runtime exception it throws is counted in "batch.sinkFailed" and the batch goes on.
+     */
+    public BatchSolver(SolverConfig config, int parallelism, int queueCapacity, long timeoutMillis, Consumer<BatchResult> sink) {
+        if (parallelism < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Parallelism and queue capacity must be positive");
+        }
+        this.config = new SolverConfig(config);
+        this.config.setThreadCount(1);
+        this.timeoutMillis = timeoutMillis;
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.jobs = Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().name("batch-solve-", 0).daemon().factory());
+        this.workers = new Thread[parallelism];
+        for (int w = 0; w < parallelism; w++) {
+            workers[w] = Thread.ofVirtual().name("batch-worker-" + w).start(this::work);
+        }
+    }
+
+    /**
+     * Makes every solved zone write a PNG image of its tour and strongest trails into a directory, named
+     * after the instance file, see {@link TourRenderer}. The drawing counts towards the job timeout but not
+     * towards the reported solve time; a zone whose image cannot be written is still reported as solved and
+     * counted in the "batch.renderFailed" counter.
+     * @param renderDirectory The directory to write the images to, or null to write none.
+     */
+    public void setRenderDirectory(Path renderDirectory) {
+        this.renderDirectory = renderDirectory;
+    }
+
+    /**
+     * Queues an instance file, waiting while the queue is full.
+     * @param file The instance file, in any format {@link CoordinateLoader#load} reads.
+     * @throws InterruptedException If interrupted while waiting for room in the queue.
+     */
+    public void submit(Path file) throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("The batch is finished");
+        }
+        queue.put(file);
+    }
+
+    /**
+     * Queues every instance file of a directory in name order, waiting while the queue is full.
+     * Files whose extension {@link CoordinateLoader} does not know are skipped.
+     * @param directory The directory to read.
+     * @throws IOException If the directory cannot be listed.
+     * @throws InterruptedException If interrupted while waiting for room in the queue.
+     */
+    public void submitDirectory(Path directory) throws IOException, InterruptedException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(Files::isRegularFile).filter(BatchSolver::isInstanceFile).sorted().toList();
+        }
+        for (Path file : files) {
+            submit(file);
+        }
+    }
+
+    /**
+     * Waits until every submitted file has been solved. No file can be submitted afterwards.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public void finish() throws InterruptedException {
+        if (!closed) {
+            closed = true;
+            for (int w = 0; w < workers.length; w++) {
+                queue.put(END_OF_INPUT);
+            }
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        jobs.shutdown();
+        if (endNanos == 0) {
+            endNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Returns the number of jobs that have ended so far, in any status.
+     * @return The completed job count.
+     */
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    /**
+     * Returns the metrics of the batch: "batch.solved", "batch.timeout" and "batch.failed" job counts,
+     * the "batch.sinkFailed" count of results the sink threw on, the "batch.job" timer and the iteration
+     * metrics of {@link MetricsListener}.
+     * @return The registry of the batch.
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the throughput of the batch, measured until now or until the batch was finished.
+     * @return The number of completed jobs per second.
+     */
+    public double getThroughput() {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return completed.get() / Math.max((end - startNanos) / 1e9, 1e-9);
+    }
+
+    /**
+     * Loop of a worker: takes files from the queue until the end marker and solves each one.
+     */
+    private void work() {
+        try {
+            Path file;
+            while ((file = queue.take()) != END_OF_INPUT) {
+                BatchResult result = runJob(file);
+                completed.incrementAndGet();
+                metrics.counter("batch." + result.getStatus().name().toLowerCase()).increment();
+                metrics.timer("batch.job").record(result.getElapsedMillis() * 1_000_000);
+                sinkLock.lock();
+                try {
+                    sink.accept(result);
+                } catch (RuntimeException e) {
+                    // A failing sink loses this result only, the worker keeps draining the queue
+                    metrics.counter("batch.sinkFailed").increment();
+                } finally {
+                    sinkLock.unlock();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Solves one file on the solve pool and waits for it, at most timeoutMillis.
+     * A job that times out still reports the best tour its solver had found by then, if any. Its solve is
+     * interrupted, and the worker waits until the solve has let go of its pool thread before returning, so the
+     * next file of the worker never queues behind it and its timeout only counts its own solve.
+     * @param file The instance file to solve.
+     * @return The result of the job.
+     * @throws InterruptedException If the worker is interrupted while waiting.
+     */
+    private BatchResult runJob(Path file) throws InterruptedException {
+        long start = System.nanoTime();
+        AtomicReference<Solver> running = new AtomicReference<>();
+        AtomicBoolean claimed = new AtomicBoolean();  // Set by whichever of the task and the timeout comes first
+        CountDownLatch released = new CountDownLatch(1);  // Opened once a started task has ended
+        Future<BatchResult> future = jobs.submit(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            try {
+                return solve(file, start, running);
+            } finally {
+                released.countDown();
+            }
+        });
+        try {
+            return timeoutMillis > 0 ? future.get(timeoutMillis, TimeUnit.MILLISECONDS) : future.get();
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            Solver solver = running.get();
+            BestTour best = solver == null ? null : solver.getCurrentBest();
+            String message = "No result within " + timeoutMillis + " ms";
+            BatchResult result = best != null
+                    ? new BatchResult(file, BatchResult.Status.TIMEOUT, solver.getInstance().getNodeCount(),
+                            best.getLength(), best.getPath(), elapsedMillis(start), message)
+                    : new BatchResult(file, BatchResult.Status.TIMEOUT, 0, Double.NaN, null, elapsedMillis(start), message);
+            // A task that never started will not run anymore, a started one ends at its next interrupt check
+            if (!claimed.compareAndSet(false, true)) {
+                released.await();
+            }
+            return result;
+        } catch (ExecutionException e) {
+            return new BatchResult(file, BatchResult.Status.FAILED, 0, Double.NaN, null, elapsedMillis(start),
+                    String.valueOf(e.getCause()));
+        }
+    }
+
+    /**
+     * Reads and solves one file.
+     * @param file The instance file to solve.
+     * @param start The time the job started, from System.nanoTime().
+     * @param running Receives the solver before it starts, so a timed out job can read its best tour.
+     * @return The result of the job, a TIMEOUT result without a render if the job was cancelled.
+     * @throws IOException If the file cannot be read.
+     */
+    private BatchResult solve(Path file, long start, AtomicReference<Solver> running) throws IOException {
+        List<Pair> nodes = CoordinateLoader.load(file).toPairs();
+        ProblemInstance instance = new ProblemInstance(nodes, config);
+        if (Thread.currentThread().isInterrupted()) {
+            // Timed out while loading, skip the first iteration the solver would run anyway
+            return new BatchResult(file, BatchResult.Status.TIMEOUT, nodes.size(), Double.NaN, null,
+                    elapsedMillis(start), "Interrupted");
+        }
+        Solver solver = new Solver(instance, config);
+        solver.addListener(metricsListener);
+        running.set(solver);
+        int[] path = solver.antColonyOptimization();
+        if (solver.getStopReason() == StopReason.INTERRUPTED || Thread.currentThread().isInterrupted()) {
+            // runJob timed out and cancelled the job, nobody reads this result, so skip the render
+            return new BatchResult(file, BatchResult.Status.TIMEOUT, nodes.size(), solver.getBestLength(), path,
+                    elapsedMillis(start), "Interrupted");
+        }
+        BatchResult result = new BatchResult(file, BatchResult.Status.SOLVED, nodes.size(), solver.getBestLength(), path,
+                elapsedMillis(start), null);
+        Path directory = renderDirectory;
+        if (directory != null) {
+            String name = file.getFileName().toString();
+            int extension = name.lastIndexOf('.');
+            Path image = directory.resolve((extension > 0 ? name.substring(0, extension) : name) + ".png");
+            try {
+                new TourRenderer(1000, 1000).writePng(nodes, solver.getPheromoneMatrix(), path, image);
+            } catch (IOException e) {
+                metrics.counter("batch.renderFailed").increment();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the milliseconds elapsed since a start time.
+     * @param start The start time, from System.nanoTime().
+     * @return The elapsed milliseconds.
+     */
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Tells whether a file has an extension of an instance format.
+     * @param file The file to check.
+     * @return true for .txt, .tsp and binary coordinate files.
+     */
+    private static boolean isInstanceFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".txt") || name.endsWith(".tsp") || name.endsWith(CoordinateLoader.BINARY_EXTENSION);
+    }
+
+    /**
+     * Runs a batch from the command line. The input is a directory of instance files, or "-" to read one
+     * file name per line from standard input. One result line per file is written to standard output as
+     * jobs end, the throughput and the metrics to standard error at the end.
+     * Options: --parallelism n (default: processor count), --queue n (default: 4 per worker),
+     * --timeout ms (default: 0, no limit), --iterations n, --ants n, --time-limit ms and --patience n
+     * (stopping criteria of every solve, see {@link SolverConfig}), --seed n (the same seed for every zone)
+     * and --render directory (a PNG image of every solved zone).
+     * @param args The input followed by options.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Usage: BatchSolver <directory|-> [--parallelism n] [--queue n] [--timeout ms]"
+                    + " [--iterations n] [--ants n] [--time-limit ms] [--patience n] [--seed n] [--render directory]");
+            System.exit(2);
+        }
+        SolverConfig config = new SolverConfig();
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        int queueCapacity = -1;
+        long timeoutMillis = 0;
+        Path renderDirectory = null;
+        for (int i = 1; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            switch (args[i]) {
+                case "--parallelism" -> parallelism = Integer.parseInt(args[i + 1]);
+                case "--queue" -> queueCapacity = Integer.parseInt(args[i + 1]);
+                case "--timeout" -> timeoutMillis = Long.parseLong(args[i + 1]);
+                case "--iterations" -> config.setIterationCount(Integer.parseInt(args[i + 1]));
+                case "--ants" -> config.setAntCount(Integer.parseInt(args[i + 1]));
+                case "--time-limit" -> config.setTimeLimitMillis(Long.parseLong(args[i + 1]));
+                case "--patience" -> config.setPatience(Integer.parseInt(args[i + 1]));
+                case "--seed" -> config.setSeed(Long.parseLong(args[i + 1]));
+                case "--render" -> renderDirectory = Path.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (queueCapacity < 0) {
+            queueCapacity = 4 * parallelism;
+        }
+
+        PrintStream out = new PrintStream(System.out, false, StandardCharsets.UTF_8);
+        BatchSolver batch = new BatchSolver(config, parallelism, queueCapacity, timeoutMillis, result -> {
+            out.println(result);
+            out.flush();
+        });
+        batch.setRenderDirectory(renderDirectory);
+        if (args[0].equals("-")) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    batch.submit(Path.of(line.strip()));
+                }
+            }
+        } else {
+            batch.submitDirectory(Path.of(args[0]));
+        }
+        batch.finish();
+        System.err.printf("Solved %d zones, %.1f zones per second%n", batch.getCompletedCount(), batch.getThroughput());
+        System.err.print(batch.getMetrics());
+    }
+}
@@ -0,0 +1,58 @@
+package migros;
+
+/**
+ * An immutable snapshot of the best tour a {@link Solver} has found, published whenever it improves
+ * so other threads can read it with {@link Solver#getCurrentBest()} while the solve runs.
+ */
+public final class BestTour {
+    private final int[] path;  // Closed tour starting and ending at node 0
+    private final double length;  // Length of the tour
+    private final int iteration;  // ACO iteration the tour was found in, 0 for the exact methods
+    private final long elapsedNanos;  // Time from the start of the solve until the tour was found
+
+    /**
+     * Creates a snapshot, taking ownership of the path array.
+     * @param path the closed tour
+     * @param length the length of the tour
+     * @param iteration the iteration the tour was found in
+     * @param elapsedNanos the time from the start of the solve until the tour was found
+     */
+    BestTour(int[] path, double length, int iteration, long elapsedNanos) {
+        this.path = path;
+        this.length = length;
+        this.iteration = iteration;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the tour.
+     * @return a copy of the closed tour, starting and ending at node 0
+     */
+    public int[] getPath() {
+        return path.clone();
+    }
+
+    /**
+     * Returns the length of the tour.
+     * @return the tour length
+     */
+    public double getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the ACO iteration the tour was found in.
+     * @return the iteration, from 0
+     */
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * Returns the time from the start of the solve until the tour was found.
+     * @return the elapsed nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,435 @@
+package migros;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Exact TSP solver exploring the tours starting at node 0 depth first and pruning every partial tour
+ * whose lower bound already reaches the best tour found so far.
+ * The lower bound of a partial tour is its length plus a minimum spanning tree over the unvisited nodes
+ * and the cheapest edges connecting that tree to the current node and back to node 0.
+ * The search runs on distances shifted by Held-Karp node penalties, which add the same amount to every
+ * tour but make the spanning tree bound much tighter. The penalties are optimized once at the root.
+ * The subtrees below the first two branching levels are searched in parallel on a ForkJoinPool.
+ */
+public class BranchAndBound {
+    private static final int SPLIT_DEPTH = 3;  // Length of the tour prefixes handed out as parallel tasks
+
+    private final int nodeCount;  // Number of nodes
+    private final double[] distances;  // Row-major copy of the distance matrix
+    private final double[] reduced;  // Row-major distances plus the penalties of both end nodes
+    private final int[][] nearestOrder;  // For every node, the other nodes from nearest to farthest
+    private final int threadCount;  // Number of threads searching subtrees
+
+    private final AtomicLong bestLengthBits;  // Penalized length of the best tour found so far, as raw double bits
+    private int[] bestTour;  // Best tour found so far, guarded by this
+
+    /**
+     * Creates a solver for the given distances.
+     * @param distanceMatrix matrix of distances between nodes
+     * @param threadCount number of threads searching subtrees in parallel
+     */
+    public BranchAndBound(EdgeMatrix distanceMatrix, int threadCount) {
+        this.nodeCount = distanceMatrix.getNodeCount();
+        this.threadCount = Math.max(1, threadCount);
+        this.distances = new double[nodeCount * nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            for (int j = 0; j < nodeCount; j++) {
+                distances[i * nodeCount + j] = distanceMatrix.get(i, j);
+            }
+        }
+        this.reduced = new double[nodeCount * nodeCount];
+        this.nearestOrder = new int[nodeCount][];
+        this.bestLengthBits = new AtomicLong(Double.doubleToRawLongBits(Double.MAX_VALUE));
+    }
+
+    /**
+     * Finds a shortest tour starting and ending at node 0.
+     * @return the optimal closed tour, with node 0 at both ends
+     */
+    public int[] solve() {
+        if (nodeCount <= 3) {
+            int[] tour = new int[nodeCount + 1];
+            for (int i = 0; i < nodeCount; i++) {
+                tour[i] = i;
+            }
+            synchronized (this) {
+                bestTour = tour;
+            }
+            return Arrays.copyOf(tour, tour.length);
+        }
+
+        // A good first tour makes the pruning effective from the start
+        int[] initialTour = nearestNeighbourTour();
+        improveWithTwoOpt(initialTour);
+
+        double[] penalties = computePenalties(tourLength(initialTour, distances));
+        for (int i = 0; i < nodeCount; i++) {
+            for (int j = 0; j < nodeCount; j++) {
+                reduced[i * nodeCount + j] = distance(i, j) + penalties[i] + penalties[j];
+            }
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            int from = i;
+            nearestOrder[i] = IntStream.range(0, nodeCount)
+                    .filter(j -> j != from)
+                    .boxed()
+                    .sorted((a, b) -> Double.compare(reduced[from * nodeCount + a], reduced[from * nodeCount + b]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        offer(initialTour, tourLength(initialTour, reduced));
+
+        List<SubtreeSearch> tasks = new ArrayList<>();
+        collectPrefixes(new int[SPLIT_DEPTH], 1, tasks);
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+        try {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+        synchronized (this) {
+            return Arrays.copyOf(bestTour, bestTour.length);
+        }
+    }
+
+    /**
+     * Returns the length of the best tour found so far.
+     * @return the best tour length, or Double.MAX_VALUE before {@link #solve()} has run
+     */
+    public synchronized double getBestLength() {
+        return bestTour == null ? Double.MAX_VALUE : tourLength(bestTour, distances);
+    }
+
+    /**
+     * Returns the penalized length of the best tour found so far, the bound the search prunes against.
+     * @return the penalized best tour length
+     */
+    private double getBestReducedLength() {
+        return Double.longBitsToDouble(bestLengthBits.get());
+    }
+
+    /**
+     * Optimizes the Held-Karp node penalties by subgradient ascent on the 1-tree lower bound.
+     * Nodes of degree above 2 in the 1-tree get more expensive and leaves get cheaper, pushing the tree
+     * towards a tour.
+     * @param upperBound the length of a known tour, used to size the steps
+     * @return the penalties giving the highest lower bound seen
+     */
+    private double[] computePenalties(double upperBound) {
+        double[] penalties = new double[nodeCount];
+        double[] bestPenalties = new double[nodeCount];
+        int[] degree = new int[nodeCount];
+        double bestBound = -Double.MAX_VALUE;
+        double stepScale = 2.0;
+        int sinceImprovement = 0;
+        for (int iteration = 0; iteration < 50 * nodeCount && stepScale > 1e-6; iteration++) {
+            double bound = oneTreeBound(penalties, degree);
+            if (bound > bestBound) {
+                bestBound = bound;
+                System.arraycopy(penalties, 0, bestPenalties, 0, nodeCount);
+                sinceImprovement = 0;
+            } else if (++sinceImprovement > nodeCount / 2) {
+                stepScale /= 2;
+                sinceImprovement = 0;
+            }
+            double norm = 0;
+            for (int i = 0; i < nodeCount; i++) {
+                norm += (degree[i] - 2) * (degree[i] - 2);
+            }
+            // Every degree is 2, the 1-tree is an optimal tour
+            if (norm == 0) {
+                break;
+            }
+            double step = stepScale * (upperBound - bound) / norm;
+            for (int i = 0; i < nodeCount; i++) {
+                penalties[i] += step * (degree[i] - 2);
+            }
+        }
+        return bestPenalties;
+    }
+
+    /**
+     * Computes the 1-tree lower bound for the given penalties: a minimum spanning tree over the nodes
+     * other than 0, plus the two cheapest edges of node 0.
+     * @param penalties the penalty of every node
+     * @param degree receives the degree of every node in the 1-tree
+     * @return the length of the 1-tree minus twice the sum of the penalties
+     */
+    private double oneTreeBound(double[] penalties, int[] degree) {
+        double[] treeDistance = new double[nodeCount];
+        int[] treeParent = new int[nodeCount];
+        boolean[] inTree = new boolean[nodeCount];
+        Arrays.fill(degree, 0);
+        Arrays.fill(treeDistance, Double.MAX_VALUE);
+
+        double length = 0;
+        treeDistance[1] = 0;
+        treeParent[1] = -1;
+        for (int added = 1; added < nodeCount; added++) {
+            int closest = -1;
+            for (int i = 1; i < nodeCount; i++) {
+                if (!inTree[i] && (closest < 0 || treeDistance[i] < treeDistance[closest])) {
+                    closest = i;
+                }
+            }
+            inTree[closest] = true;
+            length += treeDistance[closest];
+            if (treeParent[closest] >= 0) {
+                degree[closest]++;
+                degree[treeParent[closest]]++;
+            }
+            for (int i = 1; i < nodeCount; i++) {
+                double cost = distance(closest, i) + penalties[closest] + penalties[i];
+                if (!inTree[i] && cost < treeDistance[i]) {
+                    treeDistance[i] = cost;
+                    treeParent[i] = closest;
+                }
+            }
+        }
+
+        // Connect node 0 through its two cheapest edges
+        int first = -1;
+        int second = -1;
+        for (int i = 1; i < nodeCount; i++) {
+            double cost = distance(0, i) + penalties[0] + penalties[i];
+            if (first < 0 || cost < distance(0, first) + penalties[0] + penalties[first]) {
+                second = first;
+                first = i;
+            } else if (second < 0 || cost < distance(0, second) + penalties[0] + penalties[second]) {
+                second = i;
+            }
+        }
+        length += distance(0, first) + distance(0, second) + 2 * penalties[0] + penalties[first] + penalties[second];
+        degree[0] = 2;
+        degree[first]++;
+        degree[second]++;
+
+        double penaltySum = 0;
+        for (double penalty : penalties) {
+            penaltySum += penalty;
+        }
+        return length - 2 * penaltySum;
+    }
+
+    /**
+     * Creates one search task for every prefix 0, a, b of the tours, nearest nodes first.
+     * @param prefix the prefix being filled
+     * @param depth the number of prefix entries already filled
+     * @param tasks the list receiving the tasks
+     */
+    private void collectPrefixes(int[] prefix, int depth, List<SubtreeSearch> tasks) {
+        int depthLimit = Math.min(SPLIT_DEPTH, nodeCount - 1);
+        if (depth == depthLimit) {
+            tasks.add(new SubtreeSearch(Arrays.copyOf(prefix, depth)));
+            return;
+        }
+        for (int next : nearestOrder[prefix[depth - 1]]) {
+            boolean used = false;
+            for (int i = 0; i < depth; i++) {
+                used |= prefix[i] == next;
+            }
+            if (!used) {
+                prefix[depth] = next;
+                collectPrefixes(prefix, depth + 1, tasks);
+            }
+        }
+    }
+
+    /**
+     * Records a complete tour if it is shorter than the best one found so far.
+     * @param tour the closed tour
+     * @param length the penalized length of the tour
+     */
+    private synchronized void offer(int[] tour, double length) {
+        if (length < getBestReducedLength()) {
+            bestTour = Arrays.copyOf(tour, tour.length);
+            bestLengthBits.set(Double.doubleToRawLongBits(length));
+        }
+    }
+
+    /**
+     * Builds a tour by always moving to the nearest unvisited node.
+     * @return the closed tour
+     */
+    private int[] nearestNeighbourTour() {
+        int[] tour = new int[nodeCount + 1];
+        boolean[] visited = new boolean[nodeCount];
+        visited[0] = true;
+        for (int i = 1; i < nodeCount; i++) {
+            int nearest = -1;
+            for (int next = 0; next < nodeCount; next++) {
+                if (!visited[next] && (nearest < 0 || distance(tour[i - 1], next) < distance(tour[i - 1], nearest))) {
+                    nearest = next;
+                }
+            }
+            tour[i] = nearest;
+            visited[nearest] = true;
+        }
+        return tour;
+    }
+
+    /**
+     * Applies improving 2-opt moves to a closed tour until none is left.
+     * @param tour the closed tour to improve in place
+     */
+    private void improveWithTwoOpt(int[] tour) {
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int i = 0; i < nodeCount - 1; i++) {
+                for (int j = i + 2; j < nodeCount; j++) {
+                    double gain = distance(tour[i], tour[i + 1]) + distance(tour[j], tour[j + 1])
+                            - distance(tour[i], tour[j]) - distance(tour[i + 1], tour[j + 1]);
+                    if (gain > 1e-10) {
+                        for (int a = i + 1, b = j; a < b; a++, b--) {
+                            int temp = tour[a];
+                            tour[a] = tour[b];
+                            tour[b] = temp;
+                        }
+                        improved = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates the length of a closed tour.
+     * @param tour the closed tour
+     * @param edgeLengths the row-major matrix of edge lengths to sum
+     * @return the total length of the tour
+     */
+    private double tourLength(int[] tour, double[] edgeLengths) {
+        double length = 0;
+        for (int i = 0; i < tour.length - 1; i++) {
+            length += edgeLengths[tour[i] * nodeCount + tour[i + 1]];
+        }
+        return length;
+    }
+
+    /**
+     * Returns the distance between two nodes.
+     * @param from the first node
+     * @param to the second node
+     * @return the distance
+     */
+    private double distance(int from, int to) {
+        return distances[from * nodeCount + to];
+    }
+
+    /**
+     * Depth-first search of all tours starting with a given prefix, with its own scratch buffers.
+     */
+    private class SubtreeSearch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] prefix;  // Fixed start of every tour in this subtree
+        private final int[] path = new int[nodeCount + 1];  // Tour being built
+        private final boolean[] visited = new boolean[nodeCount];  // Nodes on the current path
+        private final double[] treeDistance = new double[nodeCount];  // Prim's distances to the spanning tree
+        private final boolean[] inTree = new boolean[nodeCount];  // Nodes already in the spanning tree
+
+        /**
+         * Creates the search of the subtree below a prefix.
+         * @param prefix the first nodes of the tours, starting with node 0
+         */
+        SubtreeSearch(int[] prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        protected void compute() {
+            double length = 0;
+            for (int i = 0; i < prefix.length; i++) {
+                path[i] = prefix[i];
+                visited[prefix[i]] = true;
+                if (i > 0) {
+                    length += reduced[prefix[i - 1] * nodeCount + prefix[i]];
+                }
+            }
+            search(prefix.length, length);
+        }
+
+        /**
+         * Extends the path at the given depth with every unvisited node that can still beat the best tour.
+         * Penalized edges may be negative, so only the full lower bound is used for pruning.
+         * @param depth the number of nodes on the path
+         * @param length the penalized length of the path
+         */
+        private void search(int depth, double length) {
+            int current = path[depth - 1];
+            if (depth == nodeCount) {
+                double total = length + reduced[current * nodeCount];
+                if (total < getBestReducedLength()) {
+                    path[nodeCount] = 0;
+                    offer(path, total);
+                }
+                return;
+            }
+            if (length + lowerBound(current, nodeCount - depth) >= getBestReducedLength()) {
+                return;
+            }
+            for (int next : nearestOrder[current]) {
+                if (!visited[next]) {
+                    visited[next] = true;
+                    path[depth] = next;
+                    search(depth + 1, length + reduced[current * nodeCount + next]);
+                    visited[next] = false;
+                }
+            }
+        }
+
+        /**
+         * Bounds the length still needed to visit the remaining nodes and return to node 0 from below.
+         * Such a path enters the remaining nodes from the current one, spans them and leaves them towards 0.
+         * @param current the last node on the path
+         * @param remaining the number of unvisited nodes
+         * @return a lower bound on the penalized length of the rest of the tour
+         */
+        private double lowerBound(int current, int remaining) {
+            double cheapestEntry = Double.MAX_VALUE;
+            double cheapestExit = Double.MAX_VALUE;
+            int root = -1;
+            for (int i = 0; i < nodeCount; i++) {
+                if (!visited[i]) {
+                    cheapestEntry = Math.min(cheapestEntry, reduced[current * nodeCount + i]);
+                    cheapestExit = Math.min(cheapestExit, reduced[i * nodeCount]);
+                    inTree[i] = false;
+                    treeDistance[i] = Double.MAX_VALUE;
+                    root = i;
+                }
+            }
+
+            // Prim's algorithm over the unvisited nodes
+            double treeLength = 0;
+            treeDistance[root] = 0;
+            for (int added = 0; added < remaining; added++) {
+                int closest = -1;
+                for (int i = 0; i < nodeCount; i++) {
+                    if (!visited[i] && !inTree[i] && (closest < 0 || treeDistance[i] < treeDistance[closest])) {
+                        closest = i;
+                    }
+                }
+                inTree[closest] = true;
+                treeLength += treeDistance[closest];
+                for (int i = 0; i < nodeCount; i++) {
+                    if (!visited[i] && !inTree[i]) {
+                        treeDistance[i] = Math.min(treeDistance[i], reduced[closest * nodeCount + i]);
+                    }
+                }
+            }
+            return cheapestEntry + treeLength + cheapestExit;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package migros;
+
+import java.util.Arrays;
+
+/**
+ * A read-only view of a symmetric {@link EdgeMatrix} that keeps the most recently read edges in a small
+ * two-way set-associative cache, so values that are costly to compute are computed once per burst of reads.
+ * Local search reads the same few tour edges over and over, which is what the cache is sized for.
+ * A cache is not thread safe, every thread reading through one needs its own instance.
+ */
+public class CachedEdgeMatrix implements EdgeMatrix {
+    private final EdgeMatrix source;  // Matrix whose values are cached
+    private final int setMask;  // Number of sets minus one, the number of sets is a power of two
+    private final long[] keys;  // Edge stored in every way of every set, -1 when empty
+    private final double[] values;  // Value of the edge stored in every way
+    private final boolean[] secondOlder;  // Per set, whether the second way was used least recently
+
+    /**
+     * Creates a cache in front of a symmetric matrix.
+     * @param source the matrix to read the values from
+     * @param capacity the number of edges to keep, rounded up to a power of two of at least 2
+     */
+    public CachedEdgeMatrix(EdgeMatrix source, int capacity) {
+        if (!source.isSymmetric()) {
+            throw new IllegalArgumentException("Only symmetric matrices can be cached");
+        }
+        int sets = capacity <= 2 ? 1 : Integer.highestOneBit(capacity - 1);  // Half the rounded capacity
+        this.source = source;
+        this.setMask = sets - 1;
+        this.keys = new long[sets * 2];
+        this.values = new double[sets * 2];
+        this.secondOlder = new boolean[sets];
+        Arrays.fill(keys, -1);
+    }
+
+    @Override
+    public int getNodeCount() {
+        return source.getNodeCount();
+    }
+
+    @Override
+    public double get(int from, int to) {
+        // Both directions of an edge share one key
+        long key = from < to ? (long) from << 32 | to : (long) to << 32 | from;
+        int set = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & setMask;
+        int way = set << 1;
+        if (keys[way] == key) {
+            secondOlder[set] = true;
+            return values[way];
+        }
+        if (keys[way + 1] == key) {
+            secondOlder[set] = false;
+            return values[way + 1];
+        }
+        // Miss, replace the least recently used way of the set
+        double value = source.get(from, to);
+        int victim = secondOlder[set] ? way + 1 : way;
+        keys[victim] = key;
+        values[victim] = value;
+        secondOlder[set] = victim == way;
+        return value;
+    }
+
+    @Override
+    public void set(int from, int to, double value) {
+        throw new UnsupportedOperationException("A cached matrix is read-only");
+    }
+
+    @Override
+    public void scale(double factor) {
+        throw new UnsupportedOperationException("A cached matrix is read-only");
+    }
+
+    @Override
+    public void fill(double value) {
+        throw new UnsupportedOperationException("A cached matrix is read-only");
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return true;
+    }
+}
@@ -0,0 +1,172 @@
+package migros;
+
+import java.util.List;
+
+/**
+ * Stores the k nearest neighbours of every node, ordered from the closest to the farthest.
+ * Ants restrict their choice to these candidates, which keeps the cost of a step at O(k) instead of O(n).
+ */
+public class CandidateList {
+    private final int nodeCount;  // Number of nodes the list was built for
+    private final int candidateCount;  // Number of neighbours stored per node
+    private final int[] candidates;  // Row-major nodeCount x candidateCount neighbour table
+
+    /**
+     * Builds the candidate list by computing the k nearest neighbours of each node from its coordinates.
+     * @param nodes the node locations
+     * @param candidateCount the number of neighbours to keep per node, capped at nodeCount - 1
+     */
+    public CandidateList(List<Pair> nodes, int candidateCount) {
+        this(new KdTree(nodes), candidateCount);
+    }
+
+    /**
+     * Builds the candidate list by querying the k nearest neighbours of each node from a k-d tree,
+     * in O(n k log n) instead of the O(n^2) of comparing every pair of nodes.
+     * @param spatialIndex the k-d tree of the node locations
+     * @param candidateCount the number of neighbours to keep per node, capped at nodeCount - 1
+     */
+    public CandidateList(KdTree spatialIndex, int candidateCount) {
+        this.nodeCount = spatialIndex.size();
+        this.candidateCount = Math.max(0, Math.min(candidateCount, nodeCount - 1));
+        this.candidates = new int[nodeCount * this.candidateCount];
+
+        int[] row = new int[this.candidateCount];
+        double[] squaredDistances = new double[this.candidateCount];
+        for (int i = 0; i < nodeCount && this.candidateCount > 0; i++) {
+            spatialIndex.nearest(spatialIndex.getX(i), spatialIndex.getY(i), this.candidateCount, i, row, squaredDistances);
+            System.arraycopy(row, 0, candidates, i * this.candidateCount, this.candidateCount);
+        }
+    }
+
+    /**
+     * Creates a candidate list from a filled neighbour table.
+     * @param nodeCount the number of nodes
+     * @param candidateCount the number of neighbours per node
+     * @param candidates the row-major neighbour table
+     */
+    private CandidateList(int nodeCount, int candidateCount, int[] candidates) {
+        this.nodeCount = nodeCount;
+        this.candidateCount = candidateCount;
+        this.candidates = candidates;
+    }
+
+    /**
+     * Computes the neighbours of one node by scanning every other node, used to patch single rows.
+     * @param nodes the node locations
+     * @param i the node whose row is filled
+     * @param bestDistances scratch array of candidateCount entries
+     */
+    private void fillRow(List<Pair> nodes, int i, double[] bestDistances) {
+        int found = 0;
+        int offset = i * candidateCount;
+        for (int j = 0; j < nodeCount; j++) {
+            if (j == i) {
+                continue;
+            }
+            double distance = Solver.calculateDistance(nodes.get(i), nodes.get(j));
+            if (found == candidateCount && distance >= bestDistances[found - 1]) {
+                continue;
+            }
+            // Insertion into the sorted neighbour row, dropping the farthest one when it is full
+            int position = found < candidateCount ? found++ : found - 1;
+            while (position > 0 && bestDistances[position - 1] > distance) {
+                bestDistances[position] = bestDistances[position - 1];
+                candidates[offset + position] = candidates[offset + position - 1];
+                position--;
+            }
+            bestDistances[position] = distance;
+            candidates[offset + position] = j;
+        }
+    }
+
+    /**
+     * Derives the candidate list of the same nodes with one node appended at the end, as the last index.
+     * Existing rows only change where the new node is closer than their farthest neighbour.
+     * @param nodes the node locations, including the new node as the last one
+     * @param requestedCount the number of neighbours per node the list was built with
+     * @return the new candidate list
+     */
+    public CandidateList withNodeAdded(List<Pair> nodes, int requestedCount) {
+        if (Math.min(requestedCount, nodes.size() - 1) != candidateCount) {
+            return new CandidateList(nodes, requestedCount);  // Small instance, the rows grow with the node count
+        }
+        int added = nodeCount;
+        CandidateList list = new CandidateList(nodeCount + 1, candidateCount, new int[(nodeCount + 1) * candidateCount]);
+        System.arraycopy(candidates, 0, list.candidates, 0, candidates.length);
+        for (int i = 0; i < nodeCount && candidateCount > 0; i++) {
+            int offset = i * candidateCount;
+            double distance = Solver.calculateDistance(nodes.get(i), nodes.get(added));
+            if (distance >= Solver.calculateDistance(nodes.get(i), nodes.get(list.candidates[offset + candidateCount - 1]))) {
+                continue;
+            }
+            int position = candidateCount - 1;
+            while (position > 0
+                    && Solver.calculateDistance(nodes.get(i), nodes.get(list.candidates[offset + position - 1])) > distance) {
+                list.candidates[offset + position] = list.candidates[offset + position - 1];
+                position--;
+            }
+            list.candidates[offset + position] = added;
+        }
+        list.fillRow(nodes, added, new double[candidateCount]);
+        return list;
+    }
+
+    /**
+     * Derives the candidate list of the same nodes with one node removed, the nodes after it moving down
+     * by one index. Only the rows that contained the removed node are searched again.
+     * @param nodes the node locations, without the removed node
+     * @param removed the index of the removed node in this list
+     * @param requestedCount the number of neighbours per node the list was built with
+     * @return the new candidate list
+     */
+    public CandidateList withNodeRemoved(List<Pair> nodes, int removed, int requestedCount) {
+        if (Math.min(requestedCount, nodes.size() - 1) != candidateCount) {
+            return new CandidateList(nodes, requestedCount);  // Small instance, the rows shrink with the node count
+        }
+        CandidateList list = new CandidateList(nodeCount - 1, candidateCount, new int[(nodeCount - 1) * candidateCount]);
+        double[] bestDistances = new double[candidateCount];
+        for (int i = 0; i < nodeCount; i++) {
+            if (i == removed) {
+                continue;
+            }
+            int row = i < removed ? i : i - 1;
+            boolean stale = false;
+            for (int rank = 0; rank < candidateCount; rank++) {
+                int candidate = candidates[i * candidateCount + rank];
+                stale |= candidate == removed;
+                list.candidates[row * candidateCount + rank] = candidate < removed ? candidate : candidate - 1;
+            }
+            if (stale) {
+                list.fillRow(nodes, row, bestDistances);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Returns the number of neighbours stored for every node.
+     * @return the candidate count
+     */
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    /**
+     * Returns the number of nodes the list was built for.
+     * @return the node count
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the rank-th nearest neighbour of a node.
+     * @param node the node whose neighbour is requested
+     * @param rank the rank of the neighbour, 0 being the nearest
+     * @return the index of the neighbour
+     */
+    public int getCandidate(int node, int rank) {
+        return candidates[node * candidateCount + rank];
+    }
+}
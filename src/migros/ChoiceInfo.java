@@ -0,0 +1,129 @@
+package migros;
+
+/**
+ * Caches the selection weight pheromone^alpha * (1 / distance)^beta of every edge.
+ * The heuristic part only depends on the distances and is computed once, the combined value is
+ * refreshed once per pheromone update, so ants read a single array entry per candidate instead of
+ * evaluating Math.pow at every step.
+ * <p>
+ * With a {@link PheromoneStore} the table holds relative weights and only the edges written since the last
+ * update are refreshed. A MAX-MIN lower bound is applied when reading, as the larger of the cached weight and
+ * the weight of an edge at the minimum level.
+ */
+public class ChoiceInfo {
+    private final EdgeMatrix heuristic;  // (1 / distance)^beta for every edge, 0 on the diagonal
+    private final EdgeMatrix choice;  // pheromone^alpha * heuristic for every edge
+    private final double alpha;  // Importance of pheromone in path selection
+    private double floor;  // Lower bound on the pheromone part of a weight, 0 for none
+    private int generation = -1;  // Generation of the pheromone store the table was last fully built from
+
+    /**
+     * Creates the choice table for a distance matrix, with every weight still to be filled by {@link #update}.
+     * @param distanceMatrix matrix of distances between nodes
+     * @param alpha controls the influence of pheromone in probability calculation
+     * @param beta controls the influence of distance in probability calculation
+     * @param storage the layout of the cached tables
+     */
+    public ChoiceInfo(EdgeMatrix distanceMatrix, double alpha, double beta, MatrixStorage storage) {
+        int nodeCount = distanceMatrix.getNodeCount();
+        this.alpha = alpha;
+        this.heuristic = storage.create(nodeCount);
+        this.choice = storage.create(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            for (int j = heuristic.isSymmetric() ? i : 0; j < nodeCount; j++) {
+                heuristic.set(i, j, i == j ? 0 : Math.pow(1.0 / distanceMatrix.get(i, j), beta));
+            }
+        }
+    }
+
+    /**
+     * Recomputes the selection weight of every edge from the current pheromone levels.
+     * @param pheromoneMatrix matrix representing pheromone levels between nodes
+     */
+    public void update(EdgeMatrix pheromoneMatrix) {
+        int nodeCount = choice.getNodeCount();
+        for (int i = 0; i < nodeCount; i++) {
+            // Symmetric tables share one entry per edge, so only the upper triangle is written
+            for (int j = choice.isSymmetric() ? i : 0; j < nodeCount; j++) {
+                double pheromone = alpha == 1.0 ? pheromoneMatrix.get(i, j) : Math.pow(pheromoneMatrix.get(i, j), alpha);
+                choice.set(i, j, pheromone * heuristic.get(i, j));
+            }
+        }
+        floor = 0;
+        generation = -1;
+    }
+
+    /**
+     * Refreshes the selection weights from a pheromone store. Only the edges written since the last update
+     * are recomputed, unless the store rewrote every edge. The touched list of the store is cleared.
+     * @param pheromones the pheromone levels
+     */
+    public void update(PheromoneStore pheromones) {
+        if (pheromones.getGeneration() != generation) {
+            int nodeCount = choice.getNodeCount();
+            for (int i = 0; i < nodeCount; i++) {
+                for (int j = choice.isSymmetric() ? i : 0; j < nodeCount; j++) {
+                    refresh(pheromones, i, j);
+                }
+            }
+            generation = pheromones.getGeneration();
+        } else {
+            for (int k = 0; k < pheromones.getTouchedCount(); k++) {
+                refresh(pheromones, pheromones.getTouchedFrom(k), pheromones.getTouchedTo(k));
+            }
+        }
+        pheromones.clearTouched();
+        double minimum = pheromones.getRelativeMinimum();
+        floor = minimum == 0 || alpha == 1.0 ? minimum : Math.pow(minimum, alpha);
+    }
+
+    /**
+     * Recomputes the selection weight of one edge from its relative pheromone level.
+     * @param pheromones the pheromone levels
+     * @param from the first node of the edge
+     * @param to the second node of the edge
+     */
+    private void refresh(PheromoneStore pheromones, int from, int to) {
+        double level = pheromones.getRelative(from, to);
+        double pheromone = alpha == 1.0 ? level : Math.pow(level, alpha);
+        choice.set(from, to, pheromone * heuristic.get(from, to));
+    }
+
+    /**
+     * Returns the cached selection weight of an edge.
+     * @param from the node the ant is on
+     * @param to the node the ant may move to
+     * @return the selection weight of the edge
+     */
+    public double get(int from, int to) {
+        double weight = choice.get(from, to);
+        return floor == 0 ? weight : Math.max(weight, floor * heuristic.get(from, to));
+    }
+
+    /**
+     * Copies the selection weights of every edge leaving a node, the MAX-MIN lower bound applied.
+     * With the flat layout this is a block copy followed, under a lower bound, by a branch-free loop the JIT
+     * compiles to vector instructions.
+     * @param from the node the ant is on
+     * @param target receives the weight of edge (from, j) at index j, at least nodeCount entries
+     * @param scratch scratch buffer of at least nodeCount entries
+     */
+    public void getRow(int from, double[] target, double[] scratch) {
+        choice.getRow(from, target);
+        if (floor != 0) {
+            heuristic.getRow(from, scratch);
+            int nodeCount = choice.getNodeCount();
+            for (int j = 0; j < nodeCount; j++) {
+                target[j] = Math.max(target[j], floor * scratch[j]);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of nodes covered by the table.
+     * @return the node count
+     */
+    public int getNodeCount() {
+        return choice.getNodeCount();
+    }
+}
@@ -0,0 +1,91 @@
+package migros;
+
+/**
+ * Measures of how far a colony has converged, computed on a fixed sample of nodes so they cost O(n)
+ * per iteration instead of O(n^2).
+ */
+final class ConvergenceMeasures {
+    private static final int SAMPLE_SIZE = 64;  // Number of nodes the measures are averaged over
+    private static final double LAMBDA = 0.05;  // Share of the pheromone range below the branching threshold
+
+    private ConvergenceMeasures() {
+    }
+
+    /**
+     * Picks the nodes the measures are computed on, evenly spread over the node indices.
+     * @param nodeCount the number of nodes
+     * @return the sampled nodes, all of them for small instances
+     */
+    static int[] sampleNodes(int nodeCount) {
+        int sampleSize = Math.min(SAMPLE_SIZE, nodeCount);
+        int[] sample = new int[sampleSize];
+        for (int k = 0; k < sampleSize; k++) {
+            sample[k] = (int) ((long) k * nodeCount / sampleSize);
+        }
+        return sample;
+    }
+
+    /**
+     * Computes the mean entropy of the probabilities of leaving each sampled node to every other node,
+     * divided by the entropy of a uniform choice so the result is between 0 and 1.
+     * @param choiceInfo the selection weights of the colony
+     * @param sample the sampled nodes
+     * @return the mean normalized entropy, 0 for fewer than 3 nodes
+     */
+    static double entropy(ChoiceInfo choiceInfo, int[] sample) {
+        int nodeCount = choiceInfo.getNodeCount();
+        if (nodeCount < 3) {
+            return 0;
+        }
+        double total = 0;
+        for (int i : sample) {
+            double sum = 0;
+            for (int j = 0; j < nodeCount; j++) {
+                if (j != i) {
+                    sum += choiceInfo.get(i, j);
+                }
+            }
+            double entropy = 0;
+            for (int j = 0; j < nodeCount && sum > 0; j++) {
+                double p = j == i ? 0 : choiceInfo.get(i, j) / sum;
+                if (p > 0) {
+                    entropy -= p * Math.log(p);
+                }
+            }
+            total += entropy / Math.log(nodeCount - 1);
+        }
+        return total / sample.length;
+    }
+
+    /**
+     * Computes the mean lambda-branching factor of the sampled nodes: the number of edges of a node whose
+     * pheromone level is at least min + LAMBDA * (max - min) over the edges of that node.
+     * @param pheromoneMatrix the pheromone levels of the colony
+     * @param sample the sampled nodes
+     * @return the mean branching factor
+     */
+    static double branchingFactor(EdgeMatrix pheromoneMatrix, int[] sample) {
+        int nodeCount = pheromoneMatrix.getNodeCount();
+        double total = 0;
+        for (int i : sample) {
+            double min = Double.MAX_VALUE;
+            double max = 0;
+            for (int j = 0; j < nodeCount; j++) {
+                if (j != i) {
+                    double level = pheromoneMatrix.get(i, j);
+                    min = Math.min(min, level);
+                    max = Math.max(max, level);
+                }
+            }
+            double threshold = min + LAMBDA * (max - min);
+            int branches = 0;
+            for (int j = 0; j < nodeCount; j++) {
+                if (j != i && pheromoneMatrix.get(i, j) >= threshold) {
+                    branches++;
+                }
+            }
+            total += branches;
+        }
+        return total / sample.length;
+    }
+}
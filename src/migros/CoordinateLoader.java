@@ -0,0 +1,388 @@
+package migros;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Loads node coordinates by memory-mapping the file and parsing the bytes directly into primitive arrays,
+ * without creating a String per line or per number. Three formats are supported:
+ * <ul>
+ *     <li>text, one "x,y" line per node as in the input files,</li>
+ *     <li>TSPLIB ".tsp" files, reading the NODE_COORD_SECTION as raw coordinates,</li>
+ *     <li>a compact binary format, written by {@link #writeBinary}, for fast reloads.</li>
+ * </ul>
+ */
+public final class CoordinateLoader {
+    /** File extension of the binary coordinate format. */
+    public static final String BINARY_EXTENSION = ".coords";
+
+    private static final int BINARY_MAGIC = 0x4D545350;  // "MTSP"
+    private static final int BINARY_VERSION = 1;
+    private static final int BINARY_HEADER_BYTES = 3 * Integer.BYTES;
+    private static final int CHUNK_BITS = 30;  // Files are mapped in windows of 1 GB
+    private static final double[] EXACT_POWERS_OF_TEN = new double[23];  // 10^22 is the largest exact power
+
+    static {
+        EXACT_POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < EXACT_POWERS_OF_TEN.length; i++) {
+            EXACT_POWERS_OF_TEN[i] = EXACT_POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private CoordinateLoader() {
+    }
+
+    /**
+     * Loads a coordinate file, choosing the format from the file extension.
+     * @param file the file to load
+     * @return the coordinates read from the file
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static Coordinates load(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".tsp")) {
+            return readTsplib(file);
+        }
+        if (name.endsWith(BINARY_EXTENSION)) {
+            return readBinary(file);
+        }
+        return readText(file);
+    }
+
+    /**
+     * Reads a text file of "x,y" lines. Blank lines are skipped, spaces around the numbers are allowed.
+     * @param file the file to read
+     * @return the coordinates read from the file
+     * @throws IOException if the file cannot be read or a line is malformed
+     */
+    public static Coordinates readText(Path file) throws IOException {
+        MappedText text = MappedText.open(file);
+        double[] xs = new double[1024];
+        double[] ys = new double[1024];
+        int count = 0;
+        while (text.skipWhitespace()) {
+            if (count == xs.length) {
+                xs = Arrays.copyOf(xs, count * 2);
+                ys = Arrays.copyOf(ys, count * 2);
+            }
+            xs[count] = text.parseDouble();
+            text.skipSpaces();
+            text.expect(',');
+            text.skipSpaces();
+            ys[count] = text.parseDouble();
+            count++;
+        }
+        return new Coordinates(Arrays.copyOf(xs, count), Arrays.copyOf(ys, count));
+    }
+
+    /**
+     * Reads the node coordinates of a TSPLIB file. The header is read up to NODE_COORD_SECTION, then one
+     * "index x y" line per node until EOF. Distances are later computed from the raw coordinates, without
+     * the integer rounding TSPLIB applies for EUC_2D instances.
+     * @param file the file to read
+     * @return the coordinates read from the file, in the order of the section
+     * @throws IOException if the file cannot be read or has no coordinate section
+     */
+    public static Coordinates readTsplib(Path file) throws IOException {
+        MappedText text = MappedText.open(file);
+        int dimension = -1;
+        boolean inSection = false;
+        while (!inSection && text.skipWhitespace()) {
+            if (text.startsWith("NODE_COORD_SECTION")) {
+                inSection = true;
+            } else if (text.startsWith("DIMENSION")) {
+                text.skipTo(':');
+                text.skipSpaces();
+                dimension = (int) text.parseDouble();
+            } else if (text.startsWith("EOF")) {
+                break;
+            }
+            text.skipLine();
+        }
+        if (!inSection) {
+            throw new IOException(file + " has no NODE_COORD_SECTION");
+        }
+
+        double[] xs = new double[dimension > 0 ? dimension : 1024];
+        double[] ys = new double[xs.length];
+        int count = 0;
+        while (text.skipWhitespace() && !text.startsWith("EOF")) {
+            if (count == xs.length) {
+                xs = Arrays.copyOf(xs, count * 2);
+                ys = Arrays.copyOf(ys, count * 2);
+            }
+            text.parseDouble();  // Node index, nodes are kept in file order
+            text.skipSpaces();
+            xs[count] = text.parseDouble();
+            text.skipSpaces();
+            ys[count] = text.parseDouble();
+            count++;
+        }
+        return new Coordinates(Arrays.copyOf(xs, count), Arrays.copyOf(ys, count));
+    }
+
+    /**
+     * Reads a file in the binary coordinate format: a header of magic number, version and node count,
+     * followed by all x-coordinates and all y-coordinates as little-endian doubles.
+     * @param file the file to read
+     * @return the coordinates read from the file
+     * @throws IOException if the file cannot be read or is not in the binary format
+     */
+    public static Coordinates readBinary(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is larger than 2 GB");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.remaining() < BINARY_HEADER_BYTES || buffer.getInt() != BINARY_MAGIC) {
+                throw new IOException(file + " is not a binary coordinate file");
+            }
+            int version = buffer.getInt();
+            if (version != BINARY_VERSION) {
+                throw new IOException(file + " has unsupported version " + version);
+            }
+            int count = buffer.getInt();
+            if (buffer.remaining() != (long) count * 2 * Double.BYTES) {
+                throw new IOException(file + " is truncated");
+            }
+            double[] xs = new double[count];
+            double[] ys = new double[count];
+            buffer.asDoubleBuffer().get(xs).get(ys);
+            return new Coordinates(xs, ys);
+        }
+    }
+
+    /**
+     * Writes coordinates in the binary format read by {@link #readBinary}.
+     * @param coordinates the coordinates to write
+     * @param file the file to create or overwrite
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeBinary(Coordinates coordinates, Path file) throws IOException {
+        int count = coordinates.size();
+        ByteBuffer buffer = ByteBuffer.allocate(BINARY_HEADER_BYTES + count * 2 * Double.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(BINARY_MAGIC).putInt(BINARY_VERSION).putInt(count);
+        for (int i = 0; i < count; i++) {
+            buffer.putDouble(coordinates.getX(i));
+        }
+        for (int i = 0; i < count; i++) {
+            buffer.putDouble(coordinates.getY(i));
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * A memory-mapped file read as ASCII text through a cursor, mapped in windows so it is not limited to 2 GB.
+     */
+    private static final class MappedText {
+        private final Path file;  // File being read, for error messages
+        private final MappedByteBuffer[] chunks;  // Consecutive windows of the file
+        private final long size;  // Size of the file in bytes
+        private long position;  // Cursor position in the file
+
+        private MappedText(Path file, MappedByteBuffer[] chunks, long size) {
+            this.file = file;
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        /**
+         * Maps a whole file for reading.
+         * @param file the file to map
+         * @return the mapped text, positioned at the start of the file
+         * @throws IOException if the file cannot be mapped
+         */
+        static MappedText open(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                int chunkCount = (int) ((size + (1L << CHUNK_BITS) - 1) >>> CHUNK_BITS);
+                MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+                for (int c = 0; c < chunkCount; c++) {
+                    long start = (long) c << CHUNK_BITS;
+                    chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(1L << CHUNK_BITS, size - start));
+                }
+                return new MappedText(file, chunks, size);
+            }
+        }
+
+        /**
+         * Returns the byte at a position of the file.
+         * @param index the position in the file
+         * @return the byte at that position
+         */
+        private byte at(long index) {
+            return chunks[(int) (index >>> CHUNK_BITS)].get((int) (index & ((1L << CHUNK_BITS) - 1)));
+        }
+
+        /**
+         * Moves the cursor past spaces, tabs and line breaks.
+         * @return true if there is more content after the whitespace
+         */
+        boolean skipWhitespace() {
+            while (position < size && at(position) <= ' ') {
+                position++;
+            }
+            return position < size;
+        }
+
+        /**
+         * Moves the cursor past spaces and tabs on the current line.
+         */
+        void skipSpaces() {
+            while (position < size && (at(position) == ' ' || at(position) == '\t')) {
+                position++;
+            }
+        }
+
+        /**
+         * Moves the cursor to the start of the next line.
+         */
+        void skipLine() {
+            while (position < size && at(position) != '\n') {
+                position++;
+            }
+            position++;
+        }
+
+        /**
+         * Moves the cursor past the next occurrence of a character on the current line.
+         * @param c the character to skip to
+         * @throws IOException if the line does not contain the character
+         */
+        void skipTo(char c) throws IOException {
+            while (position < size && at(position) != c && at(position) != '\n') {
+                position++;
+            }
+            expect(c);
+        }
+
+        /**
+         * Consumes an expected character.
+         * @param c the character expected at the cursor
+         * @throws IOException if another character is found
+         */
+        void expect(char c) throws IOException {
+            if (position >= size || at(position) != c) {
+                throw error("expected '" + c + "'");
+            }
+            position++;
+        }
+
+        /**
+         * Tells whether the text at the cursor starts with a keyword, without moving the cursor.
+         * @param keyword the ASCII keyword
+         * @return true if the keyword is found at the cursor
+         */
+        boolean startsWith(String keyword) {
+            if (position + keyword.length() > size) {
+                return false;
+            }
+            for (int i = 0; i < keyword.length(); i++) {
+                if (at(position + i) != keyword.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Parses a decimal number at the cursor, with optional sign, fraction and exponent.
+         * Numbers of up to 15 significant digits and a small exponent are converted exactly with a single
+         * multiplication or division, other numbers fall back to {@link Double#parseDouble}.
+         * @return the parsed number
+         * @throws IOException if there is no number at the cursor
+         */
+        double parseDouble() throws IOException {
+            long start = position;
+            boolean negative = false;
+            if (position < size && (at(position) == '-' || at(position) == '+')) {
+                negative = at(position) == '-';
+                position++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean anyDigit = false;
+            byte b;
+            while (position < size && (b = at(position)) >= '0' && b <= '9') {
+                anyDigit = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                } else {
+                    exponent++;
+                }
+                position++;
+            }
+            if (position < size && at(position) == '.') {
+                position++;
+                while (position < size && (b = at(position)) >= '0' && b <= '9') {
+                    anyDigit = true;
+                    if (digits < 18) {
+                        mantissa = mantissa * 10 + (b - '0');
+                        if (mantissa != 0) {
+                            digits++;
+                        }
+                        exponent--;
+                    }
+                    position++;
+                }
+            }
+            if (!anyDigit) {
+                throw error("expected a number");
+            }
+            if (position < size && (at(position) == 'e' || at(position) == 'E')) {
+                position++;
+                boolean negativeExponent = false;
+                if (position < size && (at(position) == '-' || at(position) == '+')) {
+                    negativeExponent = at(position) == '-';
+                    position++;
+                }
+                int explicitExponent = 0;
+                while (position < size && (b = at(position)) >= '0' && b <= '9') {
+                    explicitExponent = Math.min(explicitExponent * 10 + (b - '0'), 100_000);
+                    position++;
+                }
+                exponent += negativeExponent ? -explicitExponent : explicitExponent;
+            }
+
+            double value;
+            if (digits <= 15 && Math.abs(exponent) < EXACT_POWERS_OF_TEN.length) {
+                // Both operands are exact doubles, so the single rounding gives the correctly rounded result
+                value = exponent >= 0 ? mantissa * EXACT_POWERS_OF_TEN[exponent] : mantissa / EXACT_POWERS_OF_TEN[-exponent];
+                return negative ? -value : value;
+            }
+            byte[] bytes = new byte[(int) (position - start)];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = at(start + i);
+            }
+            return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+        }
+
+        /**
+         * Creates an exception describing a parse error at the cursor.
+         * @param message what was expected
+         * @return the exception to throw
+         */
+        private IOException error(String message) {
+            return new IOException(file + ": " + message + " at byte " + position);
+        }
+    }
+}
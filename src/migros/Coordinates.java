@@ -0,0 +1,78 @@
+package migros;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The coordinates of a set of nodes, kept in two primitive arrays instead of one {@link Pair} per node.
+ */
+public class Coordinates {
+    private final double[] xs;  // x-coordinate of every node
+    private final double[] ys;  // y-coordinate of every node
+
+    /**
+     * Wraps the given coordinate arrays without copying them.
+     * @param xs the x-coordinate of every node
+     * @param ys the y-coordinate of every node, same length as xs
+     */
+    public Coordinates(double[] xs, double[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Got " + xs.length + " x-coordinates but " + ys.length + " y-coordinates");
+        }
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    /**
+     * Copies the coordinates of a list of nodes.
+     * @param nodes the node locations
+     * @return the coordinates of the nodes
+     */
+    public static Coordinates of(List<Pair> nodes) {
+        double[] xs = new double[nodes.size()];
+        double[] ys = new double[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            xs[i] = nodes.get(i).getX();
+            ys[i] = nodes.get(i).getY();
+        }
+        return new Coordinates(xs, ys);
+    }
+
+    /**
+     * Returns the number of nodes.
+     * @return the node count
+     */
+    public int size() {
+        return xs.length;
+    }
+
+    /**
+     * Returns the x-coordinate of a node.
+     * @param node the node index
+     * @return the x-coordinate
+     */
+    public double getX(int node) {
+        return xs[node];
+    }
+
+    /**
+     * Returns the y-coordinate of a node.
+     * @param node the node index
+     * @return the y-coordinate
+     */
+    public double getY(int node) {
+        return ys[node];
+    }
+
+    /**
+     * Converts the coordinates to one {@link Pair} per node.
+     * @return a new list of node locations
+     */
+    public List<Pair> toPairs() {
+        List<Pair> nodes = new ArrayList<>(xs.length);
+        for (int i = 0; i < xs.length; i++) {
+            nodes.add(new Pair(xs[i], ys[i]));
+        }
+        return nodes;
+    }
+}
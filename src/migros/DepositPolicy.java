@@ -0,0 +1,22 @@
+package migros;
+
+/**
+ * The ants that deposit pheromone after each iteration, and how much.
+ * L is the length of a tour and Q the deposit factor of the {@link SolverConfig}.
+ */
+public enum DepositPolicy {
+    /** Ant System: every ant deposits Q / L on its tour. */
+    AS,
+    /** Every ant deposits Q / L, the best tour found so far another elitistWeight * Q / L_best. */
+    ELITIST,
+    /**
+     * Rank-based: the rankCount - 1 best ants of the iteration deposit (rankCount - rank) * Q / L,
+     * the best tour found so far rankCount * Q / L_best.
+     */
+    RANK,
+    /**
+     * MAX-MIN Ant System: only the iteration-best ant deposits Q / L, and pheromone levels are kept
+     * between bounds derived from the best tour found so far. Trails start at the upper bound.
+     */
+    MMAS
+}
@@ -0,0 +1,71 @@
+package migros;
+
+/**
+ * A square matrix holding one value per edge between two nodes, such as a distance or a pheromone level.
+ * Implementations differ in layout and precision, see {@link MatrixStorage}.
+ * Symmetric implementations store a single value for both directions of an edge, so writing
+ * (from, to) also changes (to, from).
+ */
+public interface EdgeMatrix {
+    /**
+     * Returns the number of nodes, which is the number of rows and columns of the matrix.
+     * @return the node count
+     */
+    int getNodeCount();
+
+    /**
+     * Returns the value of an edge.
+     * @param from the first node of the edge
+     * @param to the second node of the edge
+     * @return the value stored for the edge
+     */
+    double get(int from, int to);
+
+    /**
+     * Copies the values of the edges leaving a node, in node order.
+     * @param from the node whose row is copied
+     * @param target receives the value of edge (from, j) at index j, at least nodeCount entries
+     */
+    default void getRow(int from, double[] target) {
+        int nodeCount = getNodeCount();
+        for (int j = 0; j < nodeCount; j++) {
+            target[j] = get(from, j);
+        }
+    }
+
+    /**
+     * Sets the value of an edge.
+     * @param from the first node of the edge
+     * @param to the second node of the edge
+     * @param value the new value of the edge
+     */
+    void set(int from, int to, double value);
+
+    /**
+     * Adds to the value of an edge.
+     * @param from the first node of the edge
+     * @param to the second node of the edge
+     * @param delta the amount to add
+     */
+    default void add(int from, int to, double delta) {
+        set(from, to, get(from, to) + delta);
+    }
+
+    /**
+     * Multiplies every value of the matrix by the same factor.
+     * @param factor the factor to multiply with
+     */
+    void scale(double factor);
+
+    /**
+     * Sets every value of the matrix, including the diagonal.
+     * @param value the value to store
+     */
+    void fill(double value);
+
+    /**
+     * Tells whether both directions of an edge share the same value.
+     * @return true if writing (from, to) also writes (to, from)
+     */
+    boolean isSymmetric();
+}
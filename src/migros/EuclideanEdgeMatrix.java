@@ -0,0 +1,57 @@
+package migros;
+
+import java.util.List;
+
+/**
+ * A read-only {@link EdgeMatrix} of distances computed from the node coordinates whenever they are read.
+ * It uses no memory beyond the coordinates, at the cost of a square root per read.
+ */
+public class EuclideanEdgeMatrix implements EdgeMatrix {
+    private final double[] xs;  // x-coordinate of every node
+    private final double[] ys;  // y-coordinate of every node
+
+    /**
+     * Creates the distance matrix of the given nodes.
+     * @param nodes the node locations
+     */
+    public EuclideanEdgeMatrix(List<Pair> nodes) {
+        this.xs = new double[nodes.size()];
+        this.ys = new double[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            xs[i] = nodes.get(i).getX();
+            ys[i] = nodes.get(i).getY();
+        }
+    }
+
+    @Override
+    public int getNodeCount() {
+        return xs.length;
+    }
+
+    @Override
+    public double get(int from, int to) {
+        double xDistance = xs[from] - xs[to];
+        double yDistance = ys[from] - ys[to];
+        return Math.sqrt(xDistance * xDistance + yDistance * yDistance);
+    }
+
+    @Override
+    public void set(int from, int to, double value) {
+        throw new UnsupportedOperationException("Distances are computed from the node coordinates");
+    }
+
+    @Override
+    public void scale(double factor) {
+        throw new UnsupportedOperationException("Distances are computed from the node coordinates");
+    }
+
+    @Override
+    public void fill(double value) {
+        throw new UnsupportedOperationException("Distances are computed from the node coordinates");
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return true;
+    }
+}
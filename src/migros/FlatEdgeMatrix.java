@@ -0,0 +1,63 @@
+package migros;
+
+import java.util.Arrays;
+
+/**
+ * An {@link EdgeMatrix} stored as a single row-major double array.
+ * Both directions of an edge are stored separately, so the matrix need not be symmetric.
+ */
+public class FlatEdgeMatrix implements EdgeMatrix {
+    private final int nodeCount;  // Number of rows and columns
+    private final double[] values;  // Row-major values, entry (i, j) at i * nodeCount + j
+
+    /**
+     * Creates a matrix with every value set to 0.
+     * @param nodeCount the number of nodes
+     */
+    public FlatEdgeMatrix(int nodeCount) {
+        this.nodeCount = nodeCount;
+        this.values = new double[MatrixStorage.checkedArraySize((long) nodeCount * nodeCount, "Flat")];
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public double get(int from, int to) {
+        return values[from * nodeCount + to];
+    }
+
+    @Override
+    public void getRow(int from, double[] target) {
+        System.arraycopy(values, from * nodeCount, target, 0, nodeCount);
+    }
+
+    @Override
+    public void set(int from, int to, double value) {
+        values[from * nodeCount + to] = value;
+    }
+
+    @Override
+    public void add(int from, int to, double delta) {
+        values[from * nodeCount + to] += delta;
+    }
+
+    @Override
+    public void scale(double factor) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] *= factor;
+        }
+    }
+
+    @Override
+    public void fill(double value) {
+        Arrays.fill(values, value);
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return false;
+    }
+}
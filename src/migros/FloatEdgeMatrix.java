@@ -0,0 +1,59 @@
+package migros;
+
+import java.util.Arrays;
+
+/**
+ * A symmetric {@link EdgeMatrix} storing the upper triangle, diagonal included, in float precision.
+ * It needs about a quarter of the memory of a {@link FlatEdgeMatrix}, values are rounded to float when written.
+ */
+public class FloatEdgeMatrix implements EdgeMatrix {
+    private final int nodeCount;  // Number of rows and columns
+    private final float[] values;  // Packed upper triangle, row by row
+
+    /**
+     * Creates a matrix with every value set to 0.
+     * @param nodeCount the number of nodes
+     */
+    public FloatEdgeMatrix(int nodeCount) {
+        this.nodeCount = nodeCount;
+        this.values = new float[MatrixStorage.checkedArraySize(MatrixStorage.triangularSize(nodeCount), "Float")];
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public double get(int from, int to) {
+        return values[(int) MatrixStorage.triangularIndex(nodeCount, from, to)];
+    }
+
+    @Override
+    public void set(int from, int to, double value) {
+        values[(int) MatrixStorage.triangularIndex(nodeCount, from, to)] = (float) value;
+    }
+
+    @Override
+    public void add(int from, int to, double delta) {
+        int index = (int) MatrixStorage.triangularIndex(nodeCount, from, to);
+        values[index] = (float) (values[index] + delta);
+    }
+
+    @Override
+    public void scale(double factor) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (float) (values[i] * factor);
+        }
+    }
+
+    @Override
+    public void fill(double value) {
+        Arrays.fill(values, (float) value);
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return true;
+    }
+}
@@ -0,0 +1,182 @@
+package migros;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Exact TSP solver using the Held-Karp dynamic program in O(n^2 * 2^n) time.
+ * For every subset of the nodes other than 0 and every last node in it, the table holds the length of the
+ * shortest path leaving node 0, visiting exactly that subset and ending at the last node. Subsets are
+ * encoded as bitmasks, node i being bit i - 1. Lengths are kept as floats and predecessors as bytes to fit
+ * the table in memory, the returned tour is optimal up to the float rounding of the table.
+ * Subsets of the same size only depend on smaller ones, so each layer is filled in parallel.
+ */
+public class HeldKarp {
+    /** Largest instance the table can index, 2^26 subsets times 26 last nodes still fit an array. */
+    public static final int MAX_NODE_COUNT = 27;
+
+    private final int nodeCount;  // Number of nodes
+    private final int bits;  // Number of nodes in the subsets, every node except 0
+    private final double[] distances;  // Row-major copy of the distance matrix
+    private final int threadCount;  // Number of threads filling a layer
+    private float[] cost;  // Shortest path length per (subset, last node), indexed by subset * bits + last
+    private byte[] parent;  // Node visited before the last one on that shortest path
+    private double bestLength = Double.MAX_VALUE;  // Length of the optimal tour once solved
+
+    /**
+     * Creates a solver for the given distances, refusing instances whose table does not fit in the heap.
+     * @param distanceMatrix matrix of distances between nodes
+     * @param threadCount number of threads filling the table
+     * @throws IllegalArgumentException if the instance is too large for the table or the available memory
+     */
+    public HeldKarp(EdgeMatrix distanceMatrix, int threadCount) {
+        this.nodeCount = distanceMatrix.getNodeCount();
+        this.bits = Math.max(0, nodeCount - 1);
+        this.threadCount = Math.max(1, threadCount);
+        if (nodeCount > MAX_NODE_COUNT) {
+            throw new IllegalArgumentException("Held-Karp supports at most " + MAX_NODE_COUNT
+                    + " nodes, got " + nodeCount);
+        }
+        long required = estimateMemory(nodeCount);
+        Runtime runtime = Runtime.getRuntime();
+        long available = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        if (required > available) {
+            throw new IllegalArgumentException("Held-Karp needs " + (required >> 20) + " MB for "
+                    + nodeCount + " nodes but only " + (available >> 20) + " MB of heap are available");
+        }
+        this.distances = new double[nodeCount * nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            for (int j = 0; j < nodeCount; j++) {
+                distances[i * nodeCount + j] = distanceMatrix.get(i, j);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes the table needs for an instance, a float and a byte per entry.
+     * @param nodeCount the number of nodes
+     * @return the estimated memory in bytes
+     */
+    public static long estimateMemory(int nodeCount) {
+        int bits = Math.max(0, nodeCount - 1);
+        return (1L << bits) * bits * (Float.BYTES + Byte.BYTES);
+    }
+
+    /**
+     * Fills the table layer by layer and reads the optimal tour back from the predecessors.
+     * @return the optimal closed tour, with node 0 at both ends
+     */
+    public int[] solve() {
+        int[] tour = new int[nodeCount + 1];
+        if (nodeCount <= 2) {
+            for (int i = 0; i < nodeCount; i++) {
+                tour[i] = i;
+            }
+            bestLength = tourLength(tour);
+            return tour;
+        }
+
+        int subsetCount = 1 << bits;
+        cost = new float[subsetCount * bits];
+        parent = new byte[subsetCount * bits];
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+        try {
+            for (int size = 1; size <= bits; size++) {
+                int layer = size;
+                pool.submit(() -> IntStream.range(1, subsetCount)
+                        .parallel()
+                        .filter(subset -> Integer.bitCount(subset) == layer)
+                        .forEach(this::fillSubset))
+                        .join();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // Close the tour through the cheapest last node, then follow the predecessors back
+        int full = subsetCount - 1;
+        int last = 0;
+        double best = Double.MAX_VALUE;
+        for (int j = 0; j < bits; j++) {
+            double length = cost[full * bits + j] + distance(j + 1, 0);
+            if (length < best) {
+                best = length;
+                last = j;
+            }
+        }
+        int subset = full;
+        for (int position = nodeCount - 1; position >= 1; position--) {
+            tour[position] = last + 1;
+            int previous = parent[subset * bits + last];
+            subset ^= 1 << last;
+            last = previous;
+        }
+        cost = null;
+        parent = null;
+        bestLength = tourLength(tour);
+        return tour;
+    }
+
+    /**
+     * Returns the length of the optimal tour, computed in double precision from the distances.
+     * @return the optimal tour length, or Double.MAX_VALUE before {@link #solve()} has run
+     */
+    public double getBestLength() {
+        return bestLength;
+    }
+
+    /**
+     * Computes the table entries of one subset from the entries of the subsets one node smaller.
+     * @param subset the bitmask of the subset
+     */
+    private void fillSubset(int subset) {
+        for (int last = 0; last < bits; last++) {
+            if ((subset & (1 << last)) == 0) {
+                continue;
+            }
+            int previousSubset = subset ^ (1 << last);
+            int index = subset * bits + last;
+            if (previousSubset == 0) {
+                cost[index] = (float) distance(0, last + 1);
+                parent[index] = -1;
+                continue;
+            }
+            double best = Double.MAX_VALUE;
+            int bestPrevious = -1;
+            for (int previous = 0; previous < bits; previous++) {
+                if ((previousSubset & (1 << previous)) != 0) {
+                    double length = cost[previousSubset * bits + previous] + distance(previous + 1, last + 1);
+                    if (length < best) {
+                        best = length;
+                        bestPrevious = previous;
+                    }
+                }
+            }
+            cost[index] = (float) best;
+            parent[index] = (byte) bestPrevious;
+        }
+    }
+
+    /**
+     * Calculates the length of a closed tour.
+     * @param tour the closed tour
+     * @return the total distance of the tour
+     */
+    private double tourLength(int[] tour) {
+        double length = 0;
+        for (int i = 0; i < tour.length - 1; i++) {
+            length += distance(tour[i], tour[i + 1]);
+        }
+        return length;
+    }
+
+    /**
+     * Returns the distance between two nodes.
+     * @param from the first node
+     * @param to the second node
+     * @return the distance
+     */
+    private double distance(int from, int to) {
+        return distances[from * nodeCount + to];
+    }
+}
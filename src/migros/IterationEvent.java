@@ -0,0 +1,60 @@
+package migros;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event committed by {@link Solver} after every ACO iteration while a recording is running,
+ * for example with -XX:StartFlightRecording. The event duration is the whole iteration.
+ */
+@Name("migros.Iteration")
+@Label("ACO Iteration")
+@Category({"Migros", "Solver"})
+@Description("Statistics of one ant colony iteration")
+class IterationEvent extends Event {
+    @Label("Iteration")
+    int iteration;
+
+    @Label("Best Length")
+    double bestLength;
+
+    @Label("Iteration Best Length")
+    double iterationBestLength;
+
+    @Label("Mean Length")
+    double meanLength;
+
+    @Label("Construction")
+    @Timespan(Timespan.NANOSECONDS)
+    long construction;
+
+    @Label("Local Search")
+    @Timespan(Timespan.NANOSECONDS)
+    long localSearch;
+
+    @Label("Deposit")
+    @Timespan(Timespan.NANOSECONDS)
+    long deposit;
+
+    @Label("Evaporation")
+    @Timespan(Timespan.NANOSECONDS)
+    long evaporation;
+
+    @Label("Ants per Second")
+    double antsPerSecond;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocated;
+
+    @Label("Entropy")
+    double entropy;
+
+    @Label("Branching Factor")
+    double branchingFactor;
+}
@@ -0,0 +1,14 @@
+package migros;
+
+/**
+ * Receives the statistics of every ACO iteration of a {@link Solver}, see {@link Solver#addListener}.
+ * Listeners are called on the thread running the solve, between two iterations, so a slow listener
+ * slows down the solve.
+ */
+public interface IterationListener {
+    /**
+     * Called after each iteration, once the pheromone update is complete.
+     * @param stats the statistics of the iteration
+     */
+    void iterationCompleted(IterationStats stats);
+}
@@ -0,0 +1,181 @@
+package migros;
+
+/**
+ * Statistics of one ACO iteration, passed to every {@link IterationListener}.
+ * Times are in nanoseconds. Ants that run local search on their own tour spend that time in construction,
+ * the local search phase only covers the improvement of the iteration-best tour.
+ */
+public final class IterationStats {
+    private final int iteration;  // Index of the iteration, from 0
+    private final int antCount;  // Number of ants of the iteration
+    private final double iterationBestLength;  // Shortest tour of the iteration
+    private final double meanLength;  // Mean tour length of the iteration
+    private final double bestLength;  // Shortest tour found so far
+    private final long constructionNanos;  // Building the tours
+    private final long localSearchNanos;  // Improving the iteration-best tour
+    private final long depositNanos;  // Depositing pheromone
+    private final long evaporationNanos;  // Evaporating and refreshing the choice table
+    private final long allocatedBytes;  // Bytes allocated by the solve threads, -1 if unsupported
+    private final double entropy;  // Mean normalized entropy of the selection probabilities
+    private final double branchingFactor;  // Mean lambda-branching factor of the pheromone levels
+
+    /**
+     * Creates the statistics of an iteration.
+     * @param iteration the index of the iteration, from 0
+     * @param antCount the number of ants of the iteration
+     * @param iterationBestLength the shortest tour of the iteration
+     * @param meanLength the mean tour length of the iteration
+     * @param bestLength the shortest tour found so far
+     * @param constructionNanos the time spent building the tours
+     * @param localSearchNanos the time spent improving the iteration-best tour
+     * @param depositNanos the time spent depositing pheromone
+     * @param evaporationNanos the time spent evaporating and refreshing the choice table
+     * @param allocatedBytes the bytes allocated by the solve threads, -1 if unsupported
+     * @param entropy the mean normalized entropy of the selection probabilities
+     * @param branchingFactor the mean lambda-branching factor of the pheromone levels
+     */
+    IterationStats(int iteration, int antCount, double iterationBestLength, double meanLength, double bestLength,
+                   long constructionNanos, long localSearchNanos, long depositNanos, long evaporationNanos,
+                   long allocatedBytes, double entropy, double branchingFactor) {
+        this.iteration = iteration;
+        this.antCount = antCount;
+        this.iterationBestLength = iterationBestLength;
+        this.meanLength = meanLength;
+        this.bestLength = bestLength;
+        this.constructionNanos = constructionNanos;
+        this.localSearchNanos = localSearchNanos;
+        this.depositNanos = depositNanos;
+        this.evaporationNanos = evaporationNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.entropy = entropy;
+        this.branchingFactor = branchingFactor;
+    }
+
+    /**
+     * Returns the index of the iteration.
+     * @return the iteration, from 0
+     */
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * Returns the number of ants of the iteration.
+     * @return the ant count
+     */
+    public int getAntCount() {
+        return antCount;
+    }
+
+    /**
+     * Returns the shortest tour length of the iteration.
+     * @return the iteration-best length
+     */
+    public double getIterationBestLength() {
+        return iterationBestLength;
+    }
+
+    /**
+     * Returns the mean tour length of the iteration.
+     * @return the mean length
+     */
+    public double getMeanLength() {
+        return meanLength;
+    }
+
+    /**
+     * Returns the shortest tour length found so far.
+     * @return the best length
+     */
+    public double getBestLength() {
+        return bestLength;
+    }
+
+    /**
+     * Returns the time spent building the tours.
+     * @return the construction time in nanoseconds
+     */
+    public long getConstructionNanos() {
+        return constructionNanos;
+    }
+
+    /**
+     * Returns the time spent improving the iteration-best tour.
+     * @return the local search time in nanoseconds
+     */
+    public long getLocalSearchNanos() {
+        return localSearchNanos;
+    }
+
+    /**
+     * Returns the time spent depositing pheromone.
+     * @return the deposit time in nanoseconds
+     */
+    public long getDepositNanos() {
+        return depositNanos;
+    }
+
+    /**
+     * Returns the time spent evaporating pheromone and refreshing the choice table.
+     * @return the evaporation time in nanoseconds
+     */
+    public long getEvaporationNanos() {
+        return evaporationNanos;
+    }
+
+    /**
+     * Returns the time of the whole iteration.
+     * @return the sum of the phase times in nanoseconds
+     */
+    public long getIterationNanos() {
+        return constructionNanos + localSearchNanos + depositNanos + evaporationNanos;
+    }
+
+    /**
+     * Returns the number of tours built per second during construction.
+     * @return the ants per second
+     */
+    public double getAntsPerSecond() {
+        return antCount / Math.max(constructionNanos / 1e9, 1e-9);
+    }
+
+    /**
+     * Returns the bytes allocated by the threads of the solve during the iteration.
+     * @return the allocated bytes, -1 if the JVM cannot measure them
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Returns the allocation rate of the iteration.
+     * @return the allocated bytes per second, -1 if the JVM cannot measure them
+     */
+    public double getAllocationRate() {
+        return allocatedBytes < 0 ? -1 : allocatedBytes / Math.max(getIterationNanos() / 1e9, 1e-9);
+    }
+
+    /**
+     * Returns the mean entropy of the probabilities an ant uses to leave a node, normalized to [0, 1].
+     * 1 means every move is equally likely, values near 0 mean the colony follows a single tour.
+     * @return the normalized entropy
+     */
+    public double getEntropy() {
+        return entropy;
+    }
+
+    /**
+     * Returns the mean lambda-branching factor: the number of edges per node whose pheromone level is in the
+     * upper 95% of the range of that node. It approaches 2 when the colony has stagnated on one tour.
+     * @return the branching factor
+     */
+    public double getBranchingFactor() {
+        return branchingFactor;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("iteration %d: best %.4f, iteration best %.4f, mean %.4f, %.0f ants/s, entropy %.3f, branching %.2f",
+                iteration, bestLength, iterationBestLength, meanLength, getAntsPerSecond(), entropy, branchingFactor);
+    }
+}
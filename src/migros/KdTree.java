@@ -0,0 +1,366 @@
+package migros;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * A static two-dimensional k-d tree over the node coordinates, answering nearest neighbour and radius queries
+ * in O(log n) on average instead of scanning every node. The tree is stored implicitly: the nodes are permuted
+ * so that the root of every range is at its middle, with the smaller coordinates to its left.
+ * The tree is never modified after construction, so any number of threads can query it.
+ */
+public final class KdTree {
+    private final double[] xs;  // x-coordinates in tree order
+    private final double[] ys;  // y-coordinates in tree order
+    private final int[] nodes;  // Node index at every tree position
+    private final int[] positions;  // Tree position of every node
+    private final boolean[] splitX;  // Whether the range rooted at a position is split on x, else on y
+
+    /**
+     * Builds the tree of a list of nodes.
+     * @param nodes the node locations
+     */
+    public KdTree(List<Pair> nodes) {
+        this(Coordinates.of(nodes));
+    }
+
+    /**
+     * Builds the tree of a set of coordinates in O(n log n).
+     * @param coordinates the node coordinates
+     */
+    public KdTree(Coordinates coordinates) {
+        int nodeCount = coordinates.size();
+        this.xs = new double[nodeCount];
+        this.ys = new double[nodeCount];
+        this.nodes = new int[nodeCount];
+        this.splitX = new boolean[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            xs[i] = coordinates.getX(i);
+            ys[i] = coordinates.getY(i);
+            nodes[i] = i;
+        }
+        build(0, nodeCount - 1);
+        this.positions = new int[nodeCount];
+        for (int p = 0; p < nodeCount; p++) {
+            positions[nodes[p]] = p;
+        }
+    }
+
+    /**
+     * Returns the number of nodes in the tree.
+     * @return the node count
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Returns the x-coordinate of a node.
+     * @param node the node index
+     * @return the x-coordinate
+     */
+    public double getX(int node) {
+        return xs[positions[node]];
+    }
+
+    /**
+     * Returns the y-coordinate of a node.
+     * @param node the node index
+     * @return the y-coordinate
+     */
+    public double getY(int node) {
+        return ys[positions[node]];
+    }
+
+    /**
+     * Finds the k nodes closest to a point, ordered from the closest, ties broken by node index.
+     * @param x the x-coordinate of the point
+     * @param y the y-coordinate of the point
+     * @param k the number of neighbours wanted
+     * @param exclude a node to leave out, such as the node at the point, or -1
+     * @param result receives the node indices, at least k entries
+     * @param squaredDistances receives the squared distances of the nodes, at least k entries
+     * @return the number of nodes found, less than k only if the tree is too small
+     */
+    public int nearest(double x, double y, int k, int exclude, int[] result, double[] squaredDistances) {
+        if (k <= 0) {
+            return 0;
+        }
+        return nearest(0, nodes.length - 1, x, y, k, exclude, result, squaredDistances, 0);
+    }
+
+    /**
+     * Calls an action with every node within a distance of a point, in no particular order.
+     * @param x the x-coordinate of the point
+     * @param y the y-coordinate of the point
+     * @param radius the largest distance included
+     * @param action receives the index of every node found
+     */
+    public void withinRadius(double x, double y, double radius, IntConsumer action) {
+        withinRadius(0, nodes.length - 1, x, y, radius * radius, action);
+    }
+
+    /**
+     * Builds a closed tour by always moving to the nearest node not visited yet.
+     * Each step searches the tree, skipping subtrees whose nodes are all visited, so the tour takes
+     * close to O(n log n) instead of the O(n^2) of a scan.
+     * @param start the node the tour starts and ends at
+     * @return the closed tour, with start as its first and last entry
+     */
+    public int[] nearestNeighbourTour(int start) {
+        int nodeCount = nodes.length;
+        int[] unvisited = new int[nodeCount];  // Number of unvisited nodes in the range rooted at each position
+        countRange(unvisited, 0, nodeCount - 1);
+        boolean[] visited = new boolean[nodeCount];  // Indexed by tree position
+
+        int[] tour = new int[nodeCount + 1];
+        int current = start;
+        for (int step = 0; step < nodeCount; step++) {
+            tour[step] = current;
+            int position = positions[current];
+            visited[position] = true;
+            markVisited(unvisited, position);
+            if (step < nodeCount - 1) {
+                double[] best = {Double.POSITIVE_INFINITY};
+                int[] bestPosition = {-1};
+                nearestUnvisited(0, nodeCount - 1, xs[position], ys[position], unvisited, visited, best, bestPosition);
+                current = nodes[bestPosition[0]];
+            }
+        }
+        tour[nodeCount] = start;
+        return tour;
+    }
+
+    /**
+     * Arranges the range [lo, hi] so its median on the wider axis is in the middle, then recurses on both halves.
+     * @param lo the first position of the range
+     * @param hi the last position of the range
+     */
+    private void build(int lo, int hi) {
+        if (lo > hi) {
+            return;
+        }
+        double minX = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (int p = lo; p <= hi; p++) {
+            minX = Math.min(minX, xs[p]);
+            maxX = Math.max(maxX, xs[p]);
+            minY = Math.min(minY, ys[p]);
+            maxY = Math.max(maxY, ys[p]);
+        }
+        boolean onX = maxX - minX >= maxY - minY;
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi, mid, onX);
+        splitX[mid] = onX;
+        build(lo, mid - 1);
+        build(mid + 1, hi);
+    }
+
+    /**
+     * Partially sorts the range [lo, hi] on one axis so that position k holds the value it would hold if sorted,
+     * with no larger value before it and no smaller one after it.
+     * @param lo the first position of the range
+     * @param hi the last position of the range
+     * @param k the position to settle
+     * @param onX true to sort on x, false on y
+     */
+    private void select(int lo, int hi, int k, boolean onX) {
+        while (lo < hi) {
+            double pivot = value((lo + hi) >>> 1, onX);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (value(i, onX) < pivot) {
+                    i++;
+                }
+                while (value(j, onX) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns one coordinate of the node at a tree position.
+     * @param position the tree position
+     * @param onX true for the x-coordinate, false for the y-coordinate
+     * @return the coordinate
+     */
+    private double value(int position, boolean onX) {
+        return onX ? xs[position] : ys[position];
+    }
+
+    /**
+     * Swaps the nodes at two tree positions.
+     * @param a the first position
+     * @param b the second position
+     */
+    private void swap(int a, int b) {
+        double x = xs[a];
+        xs[a] = xs[b];
+        xs[b] = x;
+        double y = ys[a];
+        ys[a] = ys[b];
+        ys[b] = y;
+        int node = nodes[a];
+        nodes[a] = nodes[b];
+        nodes[b] = node;
+    }
+
+    /**
+     * Searches the range [lo, hi] for the nodes nearest to a point, keeping the sorted list of the best found.
+     * @return the number of nodes in the list
+     */
+    private int nearest(int lo, int hi, double x, double y, int k, int exclude, int[] result, double[] squaredDistances, int found) {
+        if (lo > hi) {
+            return found;
+        }
+        int mid = (lo + hi) >>> 1;
+        double dx = xs[mid] - x;
+        double dy = ys[mid] - y;
+        int node = nodes[mid];
+        if (node != exclude) {
+            found = insert(node, dx * dx + dy * dy, k, result, squaredDistances, found);
+        }
+        double offset = splitX[mid] ? -dx : -dy;  // Signed distance of the point from the splitting line
+        boolean leftFirst = offset < 0;
+        found = leftFirst ? nearest(lo, mid - 1, x, y, k, exclude, result, squaredDistances, found)
+                : nearest(mid + 1, hi, x, y, k, exclude, result, squaredDistances, found);
+        // The far side can only hold closer nodes if the splitting line is closer than the worst one kept
+        if (found < k || offset * offset <= squaredDistances[found - 1]) {
+            found = leftFirst ? nearest(mid + 1, hi, x, y, k, exclude, result, squaredDistances, found)
+                    : nearest(lo, mid - 1, x, y, k, exclude, result, squaredDistances, found);
+        }
+        return found;
+    }
+
+    /**
+     * Inserts a node into the sorted list of nearest nodes, dropping the farthest one when the list is full.
+     * @return the new number of nodes in the list
+     */
+    private static int insert(int node, double squaredDistance, int k, int[] result, double[] squaredDistances, int found) {
+        if (found == k && !closer(squaredDistance, node, squaredDistances[k - 1], result[k - 1])) {
+            return found;
+        }
+        int position = found < k ? found++ : k - 1;
+        while (position > 0 && closer(squaredDistance, node, squaredDistances[position - 1], result[position - 1])) {
+            squaredDistances[position] = squaredDistances[position - 1];
+            result[position] = result[position - 1];
+            position--;
+        }
+        squaredDistances[position] = squaredDistance;
+        result[position] = node;
+        return found;
+    }
+
+    /**
+     * Orders candidates by distance, then by node index.
+     * @return true if the first candidate comes before the second
+     */
+    private static boolean closer(double squaredDistance, int node, double otherSquaredDistance, int otherNode) {
+        return squaredDistance < otherSquaredDistance || (squaredDistance == otherSquaredDistance && node < otherNode);
+    }
+
+    /**
+     * Reports every node of the range [lo, hi] within a squared radius of a point.
+     */
+    private void withinRadius(int lo, int hi, double x, double y, double squaredRadius, IntConsumer action) {
+        if (lo > hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double dx = xs[mid] - x;
+        double dy = ys[mid] - y;
+        if (dx * dx + dy * dy <= squaredRadius) {
+            action.accept(nodes[mid]);
+        }
+        double offset = splitX[mid] ? -dx : -dy;
+        if (offset < 0 || offset * offset <= squaredRadius) {
+            withinRadius(lo, mid - 1, x, y, squaredRadius, action);
+        }
+        if (offset >= 0 || offset * offset <= squaredRadius) {
+            withinRadius(mid + 1, hi, x, y, squaredRadius, action);
+        }
+    }
+
+    /**
+     * Sets the node count of every range rooted in [lo, hi].
+     * @return the number of nodes of the range
+     */
+    private static int countRange(int[] counts, int lo, int hi) {
+        if (lo > hi) {
+            return 0;
+        }
+        int mid = (lo + hi) >>> 1;
+        counts[mid] = 1 + countRange(counts, lo, mid - 1) + countRange(counts, mid + 1, hi);
+        return counts[mid];
+    }
+
+    /**
+     * Decrements the unvisited count of every range containing a position, from the root down to it.
+     */
+    private void markVisited(int[] unvisited, int position) {
+        int lo = 0;
+        int hi = nodes.length - 1;
+        while (true) {
+            int mid = (lo + hi) >>> 1;
+            unvisited[mid]--;
+            if (position == mid) {
+                return;
+            }
+            if (position < mid) {
+                hi = mid - 1;
+            } else {
+                lo = mid + 1;
+            }
+        }
+    }
+
+    /**
+     * Searches the range [lo, hi] for the unvisited node nearest to a point, skipping fully visited ranges.
+     */
+    private void nearestUnvisited(int lo, int hi, double x, double y, int[] unvisited, boolean[] visited,
+                                  double[] best, int[] bestPosition) {
+        if (lo > hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (unvisited[mid] == 0) {
+            return;
+        }
+        double dx = xs[mid] - x;
+        double dy = ys[mid] - y;
+        double squaredDistance = dx * dx + dy * dy;
+        if (!visited[mid] && (squaredDistance < best[0]
+                || (squaredDistance == best[0] && nodes[mid] < nodes[bestPosition[0]]))) {
+            best[0] = squaredDistance;
+            bestPosition[0] = mid;
+        }
+        double offset = splitX[mid] ? -dx : -dy;
+        boolean leftFirst = offset < 0;
+        if (leftFirst) {
+            nearestUnvisited(lo, mid - 1, x, y, unvisited, visited, best, bestPosition);
+        } else {
+            nearestUnvisited(mid + 1, hi, x, y, unvisited, visited, best, bestPosition);
+        }
+        if (offset * offset <= best[0]) {
+            if (leftFirst) {
+                nearestUnvisited(mid + 1, hi, x, y, unvisited, visited, best, bestPosition);
+            } else {
+                nearestUnvisited(lo, mid - 1, x, y, unvisited, visited, best, bestPosition);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package migros;
+
+/**
+ * The tours the local search improves in each iteration, before the pheromone update, see {@link SolverConfig}.
+ */
+public enum LocalSearchMode {
+    /** No local search, the tours are used as the ants built them. */
+    NONE,
+    /** Only the iteration-best tour is improved, once all ants are done. */
+    ITERATION_BEST,
+    /** Every ant improves its own tour right after building it, on the thread that built it. */
+    EVERY_ANT
+}
@@ -0,0 +1,79 @@
+package migros;
+
+/**
+ * The storage layouts available for an {@link EdgeMatrix}.
+ * Memory use per matrix for n nodes is given next to each layout.
+ */
+public enum MatrixStorage {
+    /** Row-major double array, n^2 * 8 bytes. Fastest to read, limited to about 46,000 nodes. */
+    FLAT {
+        @Override
+        public EdgeMatrix create(int nodeCount) {
+            return new FlatEdgeMatrix(nodeCount);
+        }
+    },
+    /** Packed upper triangle of doubles, n(n+1)/2 * 8 bytes. */
+    TRIANGULAR {
+        @Override
+        public EdgeMatrix create(int nodeCount) {
+            return new TriangularEdgeMatrix(nodeCount);
+        }
+    },
+    /** Packed upper triangle of floats, n(n+1)/2 * 4 bytes. */
+    FLOAT {
+        @Override
+        public EdgeMatrix create(int nodeCount) {
+            return new FloatEdgeMatrix(nodeCount);
+        }
+    },
+    /** Packed upper triangle of doubles in direct memory, n(n+1)/2 * 8 bytes outside of the Java heap. */
+    OFF_HEAP {
+        @Override
+        public EdgeMatrix create(int nodeCount) {
+            return new OffHeapEdgeMatrix(nodeCount);
+        }
+    };
+
+    /**
+     * Allocates a matrix of this layout with every value set to 0.
+     * @param nodeCount the number of nodes
+     * @return the new matrix
+     */
+    public abstract EdgeMatrix create(int nodeCount);
+
+    /**
+     * Returns the index of the entry (from, to) in a packed upper triangle that includes the diagonal.
+     * @param nodeCount the number of nodes
+     * @param from the first node of the edge
+     * @param to the second node of the edge
+     * @return the position of the edge in the packed layout
+     */
+    static long triangularIndex(int nodeCount, int from, int to) {
+        long row = Math.min(from, to);
+        long column = Math.max(from, to);
+        return row * nodeCount - row * (row - 1) / 2 + (column - row);
+    }
+
+    /**
+     * Returns the number of entries of a packed upper triangle that includes the diagonal.
+     * @param nodeCount the number of nodes
+     * @return the number of entries
+     */
+    static long triangularSize(int nodeCount) {
+        return (long) nodeCount * (nodeCount + 1) / 2;
+    }
+
+    /**
+     * Checks that a matrix of the given number of entries fits into a single Java array.
+     * @param entries the number of entries
+     * @param layout the name of the layout, used in the error message
+     * @return the number of entries as an int
+     */
+    static int checkedArraySize(long entries, String layout) {
+        if (entries > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(layout + " matrix of " + entries
+                    + " entries does not fit into an array, use " + OFF_HEAP + " storage instead");
+        }
+        return (int) entries;
+    }
+}
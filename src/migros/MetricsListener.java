@@ -0,0 +1,64 @@
+package migros;
+
+/**
+ * Records the statistics of every iteration into a {@link MetricsRegistry}, under names starting with "aco.".
+ * One listener can be shared by concurrent solves, the timers and counters then add up over all of them
+ * while the gauges hold the values of the last iteration of any solve.
+ */
+public class MetricsListener implements IterationListener {
+    private final MetricsRegistry.Counter iterations;
+    private final MetricsRegistry.Counter ants;
+    private final MetricsRegistry.Counter allocatedBytes;
+    private final MetricsRegistry.Timer construction;
+    private final MetricsRegistry.Timer localSearch;
+    private final MetricsRegistry.Timer deposit;
+    private final MetricsRegistry.Timer evaporation;
+    private final MetricsRegistry.Timer iteration;
+    private final MetricsRegistry.Gauge bestLength;
+    private final MetricsRegistry.Gauge meanLength;
+    private final MetricsRegistry.Gauge antsPerSecond;
+    private final MetricsRegistry.Gauge allocationRate;
+    private final MetricsRegistry.Gauge entropy;
+    private final MetricsRegistry.Gauge branchingFactor;
+
+    /**
+     * Creates the meters of the listener in a registry.
+     * @param registry the registry to record into
+     */
+    public MetricsListener(MetricsRegistry registry) {
+        iterations = registry.counter("aco.iterations");
+        ants = registry.counter("aco.ants");
+        allocatedBytes = registry.counter("aco.allocated_bytes");
+        construction = registry.timer("aco.construction");
+        localSearch = registry.timer("aco.local_search");
+        deposit = registry.timer("aco.deposit");
+        evaporation = registry.timer("aco.evaporation");
+        iteration = registry.timer("aco.iteration");
+        bestLength = registry.gauge("aco.best_length");
+        meanLength = registry.gauge("aco.mean_length");
+        antsPerSecond = registry.gauge("aco.ants_per_second");
+        allocationRate = registry.gauge("aco.allocation_rate");
+        entropy = registry.gauge("aco.entropy");
+        branchingFactor = registry.gauge("aco.branching_factor");
+    }
+
+    @Override
+    public void iterationCompleted(IterationStats stats) {
+        iterations.increment();
+        ants.increment(stats.getAntCount());
+        if (stats.getAllocatedBytes() >= 0) {
+            allocatedBytes.increment(stats.getAllocatedBytes());
+            allocationRate.set(stats.getAllocationRate());
+        }
+        construction.record(stats.getConstructionNanos());
+        localSearch.record(stats.getLocalSearchNanos());
+        deposit.record(stats.getDepositNanos());
+        evaporation.record(stats.getEvaporationNanos());
+        iteration.record(stats.getIterationNanos());
+        bestLength.set(stats.getBestLength());
+        meanLength.set(stats.getMeanLength());
+        antsPerSecond.set(stats.getAntsPerSecond());
+        entropy.set(stats.getEntropy());
+        branchingFactor.set(stats.getBranchingFactor());
+    }
+}
@@ -0,0 +1,173 @@
+package migros;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A small in-process registry of named counters, gauges and timers, in the style of Micrometer but without
+ * the dependency. Meters are created on first use and can be updated from any thread.
+ * {@link #snapshot()} exports every value under a flat name, ready to be logged or pushed to a monitoring system.
+ */
+public class MetricsRegistry {
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the counter of a name, creating it if needed.
+     * @param name the meter name
+     * @return the counter
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Returns the gauge of a name, creating it if needed.
+     * @param name the meter name
+     * @return the gauge
+     */
+    public Gauge gauge(String name) {
+        return gauges.computeIfAbsent(name, key -> new Gauge());
+    }
+
+    /**
+     * Returns the timer of a name, creating it if needed.
+     * @param name the meter name
+     * @return the timer
+     */
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, key -> new Timer());
+    }
+
+    /**
+     * Exports the current value of every meter, sorted by name. Timers export their count, and their total,
+     * mean and max in seconds, under the timer name followed by ".count", ".total", ".mean" and ".max".
+     * @return a new map from name to value
+     */
+    public Map<String, Double> snapshot() {
+        Map<String, Double> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.get()));
+        gauges.forEach((name, gauge) -> values.put(name, gauge.get()));
+        timers.forEach((name, timer) -> {
+            long count = timer.getCount();
+            values.put(name + ".count", (double) count);
+            values.put(name + ".total", timer.getTotalNanos() / 1e9);
+            values.put(name + ".mean", count == 0 ? 0 : timer.getTotalNanos() / 1e9 / count);
+            values.put(name + ".max", timer.getMaxNanos() / 1e9);
+        });
+        return values;
+    }
+
+    /**
+     * Formats the snapshot as one "name value" line per value.
+     * @return the exported values
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        snapshot().forEach((name, value) -> text.append(name).append(' ').append(value).append('\n'));
+        return text.toString();
+    }
+
+    /**
+     * A value that only grows, such as a number of iterations.
+     */
+    public static final class Counter {
+        private final DoubleAdder value = new DoubleAdder();
+
+        /**
+         * Adds one to the counter.
+         */
+        public void increment() {
+            value.add(1);
+        }
+
+        /**
+         * Adds an amount to the counter.
+         * @param amount the amount to add, not negative
+         */
+        public void increment(double amount) {
+            value.add(amount);
+        }
+
+        /**
+         * Returns the current count.
+         * @return the count
+         */
+        public double get() {
+            return value.sum();
+        }
+    }
+
+    /**
+     * The last value of a measurement, such as the current best length.
+     */
+    public static final class Gauge {
+        private final AtomicLong bits = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
+
+        /**
+         * Sets the value of the gauge.
+         * @param value the new value
+         */
+        public void set(double value) {
+            bits.set(Double.doubleToRawLongBits(value));
+        }
+
+        /**
+         * Returns the last value set, NaN before the first one.
+         * @return the value
+         */
+        public double get() {
+            return Double.longBitsToDouble(bits.get());
+        }
+    }
+
+    /**
+     * The count, total and maximum of a series of durations.
+     */
+    public static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        /**
+         * Records one duration.
+         * @param nanos the duration in nanoseconds
+         */
+        public void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        /**
+         * Returns the number of durations recorded.
+         * @return the count
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Returns the sum of the durations recorded.
+         * @return the total in nanoseconds
+         */
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        /**
+         * Returns the longest duration recorded.
+         * @return the maximum in nanoseconds
+         */
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+    }
+}
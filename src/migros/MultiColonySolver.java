@@ -0,0 +1,155 @@
+package migros;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Solves an instance with several independent ant colonies at once, the island model: every colony is a
+ * {@link Solver} with its own pheromone levels, parameters and seed, running on its own thread. Every
+ * migrationInterval iterations a colony offers its best tour to a shared {@link TourExchange} and adopts
+ * the shared tour when it is shorter, so a colony stuck in one region learns from the others while keeping
+ * its own search. Every colony builds its ants with the threadCount threads of its own config, so colonies
+ * created from one config share its thread count between them.
+ */
+public class MultiColonySolver {
+    private static final int DEFAULT_MIGRATION_INTERVAL = 10;  // Used when a shared config sets none
+
+    private final List<Solver> colonies;  // One solver per colony, sharing the instance
+    private volatile TourExchange tourExchange = new TourExchange();  // Best tour of all colonies in the current solve
+
+    /**
+     * Creates one colony per config, all solving the same instance.
+     * @param instance the nodes to solve
+     * @param configs the parameters of every colony, each with its own seed and migration interval
+     */
+    public MultiColonySolver(ProblemInstance instance, List<SolverConfig> configs) {
+        if (configs.isEmpty()) {
+            throw new IllegalArgumentException("At least one colony is needed");
+        }
+        this.colonies = new ArrayList<>(configs.size());
+        for (SolverConfig config : configs) {
+            colonies.add(new Solver(instance, config));
+        }
+    }
+
+    /**
+     * Creates a number of colonies with the same parameters, differing only in their seeds.
+     * The thread count of the config is split between the colonies, at least one thread each, and colonies
+     * exchange their best tours every 10 iterations unless the config sets a migration interval.
+     * @param instance the nodes to solve
+     * @param config the parameters of every colony; colony c uses seed + c + 1, or a seed of its own when the
+     *               config has none
+     * @param colonyCount the number of colonies
+     */
+    public MultiColonySolver(ProblemInstance instance, SolverConfig config, int colonyCount) {
+        this(instance, colonyConfigs(config, colonyCount));
+    }
+
+    /**
+     * Derives the configs of colonies that differ in their seeds and share the threads of one config.
+     * @param config the parameters of every colony
+     * @param colonyCount the number of colonies
+     * @return one config per colony
+     */
+    private static List<SolverConfig> colonyConfigs(SolverConfig config, int colonyCount) {
+        List<SolverConfig> configs = new ArrayList<>(colonyCount);
+        for (int c = 0; c < colonyCount; c++) {
+            SolverConfig colonyConfig = new SolverConfig(config);
+            colonyConfig.setThreadCount(Math.max(1, config.getThreadCount() / colonyCount));
+            if (config.getMigrationInterval() == 0) {
+                colonyConfig.setMigrationInterval(DEFAULT_MIGRATION_INTERVAL);
+            }
+            if (config.getSeed() != 0) {
+                colonyConfig.setSeed(config.getSeed() + c + 1);
+            }
+            configs.add(colonyConfig);
+        }
+        return configs;
+    }
+
+    /**
+     * Runs the ACO solve of every colony in parallel and waits for all of them.
+     * Every solve starts with an empty exchange, so no colony adopts a tour found by an earlier solve.
+     * @return the shortest closed tour found by any colony
+     */
+    public int[] antColonyOptimization() {
+        TourExchange exchange = new TourExchange();
+        for (Solver colony : colonies) {
+            colony.setTourExchange(exchange);
+        }
+        tourExchange = exchange;
+        ExecutorService executor = Executors.newFixedThreadPool(colonies.size(),
+                Thread.ofPlatform().name("colony-", 0).daemon().factory());
+        try {
+            List<Callable<int[]>> tasks = new ArrayList<>(colonies.size());
+            for (Solver colony : colonies) {
+                tasks.add(colony::antColonyOptimization);
+            }
+            for (Future<int[]> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            requestStop();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The multi-colony solve was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A colony failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        return findBestColony().getBestPath();
+    }
+
+    /**
+     * Finds the colony whose last solve ended with the shortest tour.
+     * @return the best colony
+     */
+    private Solver findBestColony() {
+        Solver best = colonies.get(0);
+        for (Solver colony : colonies) {
+            if (colony.getBestLength() < best.getBestLength()) {
+                best = colony;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the length of the shortest tour found by any colony in the last solve.
+     * @return the best length
+     */
+    public double getBestLength() {
+        return findBestColony().getBestLength();
+    }
+
+    /**
+     * Returns the shortest tour exchanged between the colonies in the running or last solve. Safe to call from
+     * any thread, it can lag behind the colonies' own best tours by up to one migration interval.
+     * @return the shared tour, or null if no colony has offered one yet
+     */
+    public BestTour getCurrentBest() {
+        return tourExchange.getBest();
+    }
+
+    /**
+     * Asks every colony to stop after its current iteration. Safe to call from any thread.
+     */
+    public void requestStop() {
+        for (Solver colony : colonies) {
+            colony.requestStop();
+        }
+    }
+
+    /**
+     * Returns the solvers of the colonies, for example to register listeners on them.
+     * @return an unmodifiable list with one solver per colony
+     */
+    public List<Solver> getColonies() {
+        return List.copyOf(colonies);
+    }
+}
@@ -0,0 +1,169 @@
+package migros;
+
+/**
+ * Base class of the local search stages working on an array tour with neighbour lists and don't-look bits.
+ * Only nodes whose neighbourhood changed are looked at again, which keeps a pass close to linear in the
+ * number of nodes. Moves are applied as reversals of the shorter side of the tour, so the orientation of the
+ * array may flip, subclasses therefore describe moves by the edges they remove and add.
+ */
+public abstract class NeighbourListImprover implements TourImprover {
+    protected static final double EPSILON = 1e-10;  // Minimum gain for a move to count as an improvement
+
+    protected final CandidateList candidateList;  // Nearest neighbours tried for every node
+    protected EdgeMatrix distanceMatrix;  // Distances of the tour currently being improved
+    protected int nodeCount;  // Number of nodes of the tour currently being improved
+    private int[] order = new int[0];  // Open tour, each node exactly once
+    private int[] position = new int[0];  // Index of every node in order
+    private int[] queue = new int[0];  // Circular queue of nodes whose don't-look bit is off
+    private boolean[] queued = new boolean[0];  // Tells whether a node is in the queue
+    private int queueHead;  // Index of the next node to take from the queue
+    private int queueSize;  // Number of nodes in the queue
+
+    /**
+     * Creates an improver trying the nodes of the given candidate list.
+     * @param candidateList the nearest neighbours of every node
+     */
+    protected NeighbourListImprover(CandidateList candidateList) {
+        this.candidateList = candidateList;
+    }
+
+    @Override
+    public double improve(int[] tour, EdgeMatrix distanceMatrix) {
+        int startNode = tour[0];
+        this.distanceMatrix = distanceMatrix;
+        this.nodeCount = tour.length - 1;
+        if (order.length != nodeCount) {
+            order = new int[nodeCount];
+            position = new int[nodeCount];
+            queue = new int[nodeCount];
+            queued = new boolean[nodeCount];
+        }
+        queueHead = 0;
+        queueSize = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            order[i] = tour[i];
+            position[tour[i]] = i;
+            push(tour[i]);
+        }
+
+        if (nodeCount >= 5) {
+            while (queueSize > 0) {
+                int node = queue[queueHead];
+                queueHead = (queueHead + 1) % nodeCount;
+                queueSize--;
+                queued[node] = false;
+                // Keep looking at the node while it keeps yielding improving moves
+                while (improveNode(node)) {
+                    push(node);
+                }
+            }
+        }
+
+        // Write the tour back starting at the original start node, in the current orientation
+        int offset = position[startNode];
+        double length = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            tour[i] = order[(offset + i) % nodeCount];
+            if (i > 0) {
+                length += distanceMatrix.get(tour[i - 1], tour[i]);
+            }
+        }
+        tour[nodeCount] = startNode;
+        return length + distanceMatrix.get(tour[nodeCount - 1], startNode);
+    }
+
+    /**
+     * Looks for an improving move around a node and applies the first one found.
+     * @param node the node to look at
+     * @return true if a move was applied
+     */
+    protected abstract boolean improveNode(int node);
+
+    /**
+     * Turns the don't-look bit of a node off so it is looked at again.
+     * @param node the node to look at again
+     */
+    protected void push(int node) {
+        if (!queued[node]) {
+            queued[node] = true;
+            queue[(queueHead + queueSize) % nodeCount] = node;
+            queueSize++;
+        }
+    }
+
+    /**
+     * Returns the node following another one in the current orientation of the tour.
+     * @param node a node of the tour
+     * @return the next node
+     */
+    protected int next(int node) {
+        int i = position[node] + 1;
+        return order[i == nodeCount ? 0 : i];
+    }
+
+    /**
+     * Returns the node preceding another one in the current orientation of the tour.
+     * @param node a node of the tour
+     * @return the previous node
+     */
+    protected int previous(int node) {
+        int i = position[node] - 1;
+        return order[i < 0 ? nodeCount - 1 : i];
+    }
+
+    /**
+     * Returns the distance between two nodes.
+     * @param from the first node
+     * @param to the second node
+     * @return the distance
+     */
+    protected double distance(int from, int to) {
+        return distanceMatrix.get(from, to);
+    }
+
+    /**
+     * Applies a 2-opt move replacing the edges (a1, a2) and (b1, b2) by (a1, b1) and (a2, b2).
+     * In either orientation of the tour, a2 must follow a1 exactly when b2 follows b1.
+     * @param a1 first node of the first removed edge
+     * @param a2 second node of the first removed edge
+     * @param b1 first node of the second removed edge
+     * @param b2 second node of the second removed edge
+     */
+    protected void twoOptMove(int a1, int a2, int b1, int b2) {
+        if (next(a1) == a2) {
+            reverse(position[a2], position[b1]);
+        } else {
+            reverse(position[a1], position[b2]);
+        }
+        push(a1);
+        push(a2);
+        push(b1);
+        push(b2);
+    }
+
+    /**
+     * Reverses the cyclic range of the tour from index from to index to, both included.
+     * The complementary range is reversed instead when it is shorter, which yields the same cycle.
+     * @param from the first index of the range
+     * @param to the last index of the range
+     */
+    private void reverse(int from, int to) {
+        int length = (to - from + nodeCount) % nodeCount + 1;
+        if (length * 2 > nodeCount) {
+            int complementFrom = (to + 1) % nodeCount;
+            to = (from - 1 + nodeCount) % nodeCount;
+            from = complementFrom;
+            length = nodeCount - length;
+        }
+        for (int k = 0; k < length / 2; k++) {
+            int first = order[from];
+            int second = order[to];
+            order[from] = second;
+            position[second] = from;
+            order[to] = first;
+            position[first] = to;
+            from = from + 1 == nodeCount ? 0 : from + 1;
+            to = to == 0 ? nodeCount - 1 : to - 1;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package migros;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * A symmetric {@link EdgeMatrix} storing the packed upper triangle as doubles in direct memory.
+ * The values live outside of the Java heap, split into chunks of at most 1 GB so the matrix is not
+ * limited by the maximum array size. The total is bounded by -XX:MaxDirectMemorySize.
+ */
+public class OffHeapEdgeMatrix implements EdgeMatrix {
+    private static final int CHUNK_BITS = 27;  // 2^27 doubles, 1 GB per chunk
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    private final int nodeCount;  // Number of rows and columns
+    private final DoubleBuffer[] chunks;  // Packed upper triangle, split into fixed size chunks
+
+    /**
+     * Creates a matrix with every value set to 0.
+     * @param nodeCount the number of nodes
+     */
+    public OffHeapEdgeMatrix(int nodeCount) {
+        this.nodeCount = nodeCount;
+        long entries = MatrixStorage.triangularSize(nodeCount);
+        int chunkCount = (int) ((entries + CHUNK_MASK) >>> CHUNK_BITS);
+        this.chunks = new DoubleBuffer[chunkCount];
+        for (int c = 0; c < chunkCount; c++) {
+            long chunkEntries = Math.min(CHUNK_MASK + 1, entries - ((long) c << CHUNK_BITS));
+            chunks[c] = ByteBuffer.allocateDirect((int) chunkEntries * Double.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asDoubleBuffer();
+        }
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public double get(int from, int to) {
+        long index = MatrixStorage.triangularIndex(nodeCount, from, to);
+        return chunks[(int) (index >>> CHUNK_BITS)].get((int) (index & CHUNK_MASK));
+    }
+
+    @Override
+    public void set(int from, int to, double value) {
+        long index = MatrixStorage.triangularIndex(nodeCount, from, to);
+        chunks[(int) (index >>> CHUNK_BITS)].put((int) (index & CHUNK_MASK), value);
+    }
+
+    @Override
+    public void scale(double factor) {
+        for (DoubleBuffer chunk : chunks) {
+            for (int i = 0; i < chunk.capacity(); i++) {
+                chunk.put(i, chunk.get(i) * factor);
+            }
+        }
+    }
+
+    @Override
+    public void fill(double value) {
+        for (DoubleBuffer chunk : chunks) {
+            for (int i = 0; i < chunk.capacity(); i++) {
+                chunk.put(i, value);
+            }
+        }
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return true;
+    }
+}
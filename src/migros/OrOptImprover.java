@@ -0,0 +1,103 @@
+package migros;
+
+/**
+ * Local search moving a segment of up to three consecutive nodes to another place in the tour (Or-opt),
+ * optionally reversing it. The new place is next to one of the nearest neighbours of the segment ends.
+ */
+public class OrOptImprover extends NeighbourListImprover {
+    private static final int MAX_SEGMENT_LENGTH = 3;
+
+    /**
+     * Creates an Or-opt improver trying the nodes of the given candidate list.
+     * @param candidateList the nearest neighbours of every node
+     */
+    public OrOptImprover(CandidateList candidateList) {
+        super(candidateList);
+    }
+
+    @Override
+    protected boolean improveNode(int first) {
+        int last = first;
+        for (int segmentLength = 1; segmentLength <= MAX_SEGMENT_LENGTH; segmentLength++) {
+            if (segmentLength > 1) {
+                last = next(last);
+            }
+            if (nodeCount < segmentLength + 3) {
+                return false;
+            }
+            int before = previous(first);
+            int after = next(last);
+            double removalGain = distance(before, first) + distance(last, after) - distance(before, after);
+            if (removalGain <= EPSILON) {
+                continue;
+            }
+            for (int end = 0; end < 2; end++) {
+                int segmentEnd = end == 0 ? first : last;
+                for (int r = 0; r < candidateList.getCandidateCount(); r++) {
+                    int c = candidateList.getCandidate(segmentEnd, r);
+                    if (distance(segmentEnd, c) >= removalGain) {
+                        break;
+                    }
+                    // Try the gap after c and the gap before c
+                    for (int side = 0; side < 2; side++) {
+                        int e = side == 0 ? c : previous(c);
+                        int f = side == 0 ? next(c) : c;
+                        if (isInSegment(e, first, segmentLength) || isInSegment(f, first, segmentLength) || f == before) {
+                            continue;
+                        }
+                        double forward = distance(e, first) + distance(last, f);
+                        double reversed = distance(e, last) + distance(first, f);
+                        double insertionCost = Math.min(forward, reversed) - distance(e, f);
+                        if (removalGain - insertionCost > EPSILON) {
+                            moveSegment(before, first, last, after, e, f, forward <= reversed);
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells whether a node lies in the segment starting at first.
+     * @param node the node to check
+     * @param first the first node of the segment
+     * @param segmentLength the number of nodes in the segment
+     * @return true if the node is part of the segment
+     */
+    private boolean isInSegment(int node, int first, int segmentLength) {
+        int current = first;
+        for (int i = 0; i < segmentLength; i++) {
+            if (current == node) {
+                return true;
+            }
+            current = next(current);
+        }
+        return false;
+    }
+
+    /**
+     * Moves the segment first..last between e and f as a sequence of 2-opt moves.
+     * The tour must read before, first..last, after, ..., e, f in the current orientation.
+     * @param before the node preceding the segment
+     * @param first the first node of the segment
+     * @param last the last node of the segment
+     * @param after the node following the segment
+     * @param e the node the segment is inserted after
+     * @param f the node the segment is inserted before
+     * @param keepOrientation true to insert the segment as e, first..last, f, false to reverse it
+     */
+    private void moveSegment(int before, int first, int last, int after, int e, int f, boolean keepOrientation) {
+        // before, first..last, after..e, f becomes before, e..after, last..first, f
+        twoOptMove(before, first, e, f);
+        // before, e..after, last..first, f becomes before, after..e, last..first, f
+        if (after != e) {
+            twoOptMove(before, e, after, last);
+        }
+        // e, last..first, f becomes e, first..last, f
+        if (keepOrientation && first != last) {
+            twoOptMove(e, last, first, f);
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package migros;
+
 /**
  * This class represents a pair of coordinates (x, y).
  * It is typically used to store and manipulate the coordinates of a point in a 2D space.
@@ -0,0 +1,246 @@
+package migros;
+
+import java.util.Arrays;
+
+/**
+ * Pheromone levels with lazy evaporation. Every level is stored relative to a global factor, the real level
+ * being stored value * factor, so evaporating every edge only multiplies the factor and deposits divide by it.
+ * When the factor gets small, the stored values are rescaled once and the factor reset to 1, which costs one
+ * pass over the matrix every few hundred iterations instead of one per iteration.
+ * <p>
+ * Edges written since the last {@link #clearTouched()} are recorded once each so {@link ChoiceInfo} only
+ * refreshes those; a one-byte stamp per edge tells whether it is already in the list. A full rewrite of the
+ * matrix (fill or rescale) increments the generation instead, telling readers that every edge changed.
+ * Selection probabilities only depend on ratios of levels, so readers can use the relative values directly
+ * and never need the global factor.
+ * <p>
+ * Optional MAX-MIN bounds keep every real level within [minimum, maximum]: the maximum is applied when
+ * depositing, since evaporation only lowers levels, and the minimum when reading and before each deposit.
+ */
+public class PheromoneStore implements EdgeMatrix {
+    private static final double RESCALE_BELOW = 1e-15;  // Smallest global factor before the values are rescaled
+
+    private final EdgeMatrix values;  // Levels relative to the global factor
+    private double factor = 1.0;  // Real level = stored value * factor
+    private double minimum = 0;  // Lower bound on real levels, 0 for none
+    private double maximum = Double.POSITIVE_INFINITY;  // Upper bound on real levels
+    private int generation;  // Incremented whenever every edge is rewritten
+
+    // Edges written since the last clearTouched, each listed once
+    private int[] touchedFrom = new int[1024];
+    private int[] touchedTo = new int[1024];
+    private int touchedCount;
+    private final long touchedLimit;  // Beyond this many edges a full refresh is cheaper than the list
+    private final byte[] stamps;  // Stamp of the touched list each edge was last added to, null if too many edges
+    private byte stamp = 1;  // Stamp of the current touched list, cycling through 1 to 127
+
+    /**
+     * Creates a store with every level set to 0.
+     * @param storage the layout of the stored values
+     * @param nodeCount the number of nodes
+     */
+    public PheromoneStore(MatrixStorage storage, int nodeCount) {
+        this.values = storage.create(nodeCount);
+        this.touchedLimit = Math.max(1024, (long) nodeCount * nodeCount / 4);
+        long edgeCount = values.isSymmetric() ? MatrixStorage.triangularSize(nodeCount) : (long) nodeCount * nodeCount;
+        this.stamps = edgeCount <= Integer.MAX_VALUE - 8 ? new byte[(int) edgeCount] : null;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return values.getNodeCount();
+    }
+
+    /**
+     * Returns the real pheromone level of an edge, raised to the minimum bound if needed.
+     * @param from the first node of the edge
+     * @param to the second node of the edge
+     * @return the pheromone level of the edge
+     */
+    @Override
+    public double get(int from, int to) {
+        return Math.max(values.get(from, to) * factor, minimum);
+    }
+
+    @Override
+    public void set(int from, int to, double value) {
+        values.set(from, to, Math.min(value, maximum) / factor);
+        touch(from, to);
+    }
+
+    /**
+     * Deposits pheromone on an edge. Like {@link #get}, the deposit starts from the level raised to the minimum
+     * bound, and the real level is kept at most at the maximum bound.
+     * @param from the first node of the edge
+     * @param to the second node of the edge
+     * @param delta the amount of pheromone to add
+     */
+    @Override
+    public void add(int from, int to, double delta) {
+        double value = Math.max(values.get(from, to), minimum / factor) + delta / factor;
+        values.set(from, to, Math.min(value, maximum / factor));
+        touch(from, to);
+    }
+
+    /**
+     * Evaporates every edge at once by multiplying the global factor, rescaling the stored values
+     * when the factor gets too small to keep them in range.
+     * @param factor the factor every level is multiplied with
+     */
+    @Override
+    public void scale(double factor) {
+        this.factor *= factor;
+        if (this.factor < RESCALE_BELOW) {
+            values.scale(this.factor);
+            this.factor = 1.0;
+            rewritten();
+        }
+    }
+
+    @Override
+    public void fill(double value) {
+        values.fill(value);
+        factor = 1.0;
+        rewritten();
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return values.isSymmetric();
+    }
+
+    /**
+     * Sets the MAX-MIN bounds on real pheromone levels. Levels already above the new maximum are only
+     * lowered when they next receive a deposit.
+     * @param minimum the lower bound, 0 for none
+     * @param maximum the upper bound, positive infinity for none
+     */
+    public void setBounds(double minimum, double maximum) {
+        this.minimum = minimum;
+        this.maximum = maximum;
+    }
+
+    /**
+     * Returns the level of an edge relative to the global factor, without the minimum bound.
+     * Ratios of relative levels are the ratios of the real levels.
+     * @param from the first node of the edge
+     * @param to the second node of the edge
+     * @return the stored value of the edge
+     */
+    public double getRelative(int from, int to) {
+        return values.get(from, to);
+    }
+
+    /**
+     * Returns the minimum bound relative to the global factor.
+     * @return the relative minimum, 0 when there is no lower bound
+     */
+    public double getRelativeMinimum() {
+        return minimum / factor;
+    }
+
+    /**
+     * Returns a counter incremented whenever every edge is rewritten, by a fill or a rescale.
+     * Readers that see it change must refresh every edge instead of the touched ones.
+     * @return the generation of the stored values
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the number of edges written since the last {@link #clearTouched()}.
+     * @return the touched edge count
+     */
+    public int getTouchedCount() {
+        return touchedCount;
+    }
+
+    /**
+     * Returns the first node of a touched edge.
+     * @param index the index in the touched list
+     * @return the first node of the edge
+     */
+    public int getTouchedFrom(int index) {
+        return touchedFrom[index];
+    }
+
+    /**
+     * Returns the second node of a touched edge.
+     * @param index the index in the touched list
+     * @return the second node of the edge
+     */
+    public int getTouchedTo(int index) {
+        return touchedTo[index];
+    }
+
+    /**
+     * Empties the touched list, once every reader has refreshed the edges.
+     */
+    public void clearTouched() {
+        touchedCount = 0;
+        nextStamp();
+    }
+
+    /**
+     * Records a written edge, switching to a full rewrite when the list grows too long.
+     * @param from the first node of the edge
+     * @param to the second node of the edge
+     */
+    private void touch(int from, int to) {
+        if (stamps != null) {
+            int index = stampIndex(from, to);
+            if (stamps[index] == stamp) {
+                return;
+            }
+            stamps[index] = stamp;
+        }
+        if (touchedCount >= touchedLimit) {
+            rewritten();
+            return;
+        }
+        if (touchedCount == touchedFrom.length) {
+            touchedFrom = Arrays.copyOf(touchedFrom, touchedCount * 2);
+            touchedTo = Arrays.copyOf(touchedTo, touchedCount * 2);
+        }
+        touchedFrom[touchedCount] = from;
+        touchedTo[touchedCount] = to;
+        touchedCount++;
+    }
+
+    /**
+     * Marks every edge as changed.
+     */
+    private void rewritten() {
+        generation++;
+        clearTouched();
+    }
+
+    /**
+     * Starts a new touched list by moving to the next stamp, clearing every stamp when they wrap around.
+     */
+    private void nextStamp() {
+        if (stamps == null) {
+            return;
+        }
+        if (stamp == Byte.MAX_VALUE) {
+            Arrays.fill(stamps, (byte) 0);
+            stamp = 0;
+        }
+        stamp++;
+    }
+
+    /**
+     * Returns the position of an edge in the stamp array, shared by both directions when the values are symmetric.
+     * @param from the first node of the edge
+     * @param to the second node of the edge
+     * @return the stamp index of the edge
+     */
+    private int stampIndex(int from, int to) {
+        int nodeCount = values.getNodeCount();
+        if (values.isSymmetric()) {
+            return (int) MatrixStorage.triangularIndex(nodeCount, from, to);
+        }
+        return from * nodeCount + to;
+    }
+}
@@ -0,0 +1,238 @@
+package migros;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The read-only data of a set of nodes to solve: their locations, the distance matrix, a k-d tree and the
+ * nearest neighbour lists. With computed distances and candidate lists, building an instance takes
+ * O(n k log n) time and O(n k) memory, so instances far too large for a distance matrix can be loaded.
+ * An instance is never modified after construction, so any number of {@link Solver}s on any number of
+ * threads can share it, each keeping its own pheromone state.
+ * When a stop is added or removed, {@link #withNodeAdded} and {@link #withNodeRemoved} derive the new instance
+ * from this one, reusing its distances and neighbour rows instead of computing them again.
+ */
+public final class ProblemInstance {
+    private final List<Pair> nodes;  // Node locations, unmodifiable
+    private final EdgeMatrix distanceMatrix;  // Distances between each pair of nodes
+    private final KdTree spatialIndex;  // k-d tree of the node locations
+
+    // Nearest neighbours the ants choose from, null when ants scan every node
+    private final CandidateList candidateList;
+
+    // Nearest neighbours tried by the local search, null when the config has no local search
+    private final CandidateList localSearchCandidates;
+
+    // Config values the instance was built with, to derive instances with the same layout
+    private final MatrixStorage distanceStorage;
+    private final boolean computeDistances;
+    private final int candidateCount;
+    private final int localSearchNeighbours;
+
+    /**
+     * Builds the distance matrix and the neighbour lists of a set of nodes.
+     * @param nodes the node locations to solve
+     * @param config the config giving the distance layout and the neighbour list sizes
+     */
+    public ProblemInstance(List<Pair> nodes, SolverConfig config) {
+        this.nodes = List.copyOf(nodes);
+        this.distanceStorage = config.getDistanceStorage();
+        this.computeDistances = config.isComputeDistances();
+        this.candidateCount = config.getCandidateCount();
+        this.localSearchNeighbours = config.getLocalSearchNeighbours();
+        this.distanceMatrix = createDistanceMatrix(this.nodes, config.getDistanceStorage(), config.isComputeDistances());
+        this.spatialIndex = new KdTree(this.nodes);
+        this.candidateList = config.getCandidateCount() > 0 ? new CandidateList(spatialIndex, config.getCandidateCount()) : null;
+        if (candidateList != null) {
+            localSearchCandidates = candidateList;
+        } else if (config.getLocalSearchMode() != LocalSearchMode.NONE) {
+            localSearchCandidates = new CandidateList(spatialIndex, config.getLocalSearchNeighbours());
+        } else {
+            localSearchCandidates = null;
+        }
+    }
+
+    /**
+     * Creates an instance from parts derived from another instance.
+     * @param nodes the node locations
+     * @param distanceMatrix the distances between the nodes
+     * @param candidateList the candidate list, or null
+     * @param localSearchCandidates the local search neighbours, or null
+     * @param source the instance whose layout is kept
+     */
+    private ProblemInstance(List<Pair> nodes, EdgeMatrix distanceMatrix, CandidateList candidateList,
+                            CandidateList localSearchCandidates, ProblemInstance source) {
+        this.nodes = nodes;
+        this.distanceMatrix = distanceMatrix;
+        this.spatialIndex = new KdTree(nodes);
+        this.candidateList = candidateList;
+        this.localSearchCandidates = localSearchCandidates;
+        this.distanceStorage = source.distanceStorage;
+        this.computeDistances = source.computeDistances;
+        this.candidateCount = source.candidateCount;
+        this.localSearchNeighbours = source.localSearchNeighbours;
+    }
+
+    /**
+     * Derives the instance with one more node, appended as the last index. The distances between the
+     * existing nodes are copied, only the n distances of the new node are computed, and the neighbour
+     * lists are patched.
+     * @param node the location of the new node
+     * @return the new instance, this one is left unchanged
+     */
+    public ProblemInstance withNodeAdded(Pair node) {
+        List<Pair> newNodes = new ArrayList<>(nodes);
+        newNodes.add(node);
+        newNodes = List.copyOf(newNodes);
+        int added = nodes.size();
+
+        EdgeMatrix distances;
+        if (computeDistances) {
+            distances = new EuclideanEdgeMatrix(newNodes);
+        } else {
+            distances = distanceStorage.create(newNodes.size());
+            copyEdges(distanceMatrix, distances, -1);
+            for (int i = 0; i <= added; i++) {
+                double distance = Solver.calculateDistance(newNodes.get(i), node);
+                distances.set(i, added, distance);
+                if (!distances.isSymmetric()) {
+                    distances.set(added, i, distance);
+                }
+            }
+        }
+        CandidateList candidates = candidateList == null ? null : candidateList.withNodeAdded(newNodes, candidateCount);
+        CandidateList neighbours = null;
+        if (localSearchCandidates == candidateList) {
+            neighbours = candidates;
+        } else if (localSearchCandidates != null) {
+            neighbours = localSearchCandidates.withNodeAdded(newNodes, localSearchNeighbours);
+        }
+        return new ProblemInstance(newNodes, distances, candidates, neighbours, this);
+    }
+
+    /**
+     * Derives the instance without one node; the nodes after it move down by one index. The remaining
+     * distances are copied and only the neighbour rows that contained the removed node are searched again.
+     * @param node the index of the node to remove
+     * @return the new instance, this one is left unchanged
+     */
+    public ProblemInstance withNodeRemoved(int node) {
+        if (node < 0 || node >= nodes.size()) {
+            throw new IndexOutOfBoundsException("No node " + node + " in an instance of " + nodes.size() + " nodes");
+        }
+        List<Pair> newNodes = new ArrayList<>(nodes);
+        newNodes.remove(node);
+        newNodes = List.copyOf(newNodes);
+
+        EdgeMatrix distances;
+        if (computeDistances) {
+            distances = new EuclideanEdgeMatrix(newNodes);
+        } else {
+            distances = distanceStorage.create(newNodes.size());
+            copyEdges(distanceMatrix, distances, node);
+        }
+        CandidateList candidates = candidateList == null ? null : candidateList.withNodeRemoved(newNodes, node, candidateCount);
+        CandidateList neighbours = null;
+        if (localSearchCandidates == candidateList) {
+            neighbours = candidates;
+        } else if (localSearchCandidates != null) {
+            neighbours = localSearchCandidates.withNodeRemoved(newNodes, node, localSearchNeighbours);
+        }
+        return new ProblemInstance(newNodes, distances, candidates, neighbours, this);
+    }
+
+    /**
+     * Copies the values of a matrix into another one with one node more or one node less.
+     * @param source the matrix to copy from
+     * @param target the matrix to copy into, its extra row and column are left untouched
+     * @param removed the node of the source that has no row in the target, -1 when the target is larger
+     */
+    static void copyEdges(EdgeMatrix source, EdgeMatrix target, int removed) {
+        int targetCount = target.getNodeCount();
+        int copied = removed < 0 ? source.getNodeCount() : targetCount;
+        for (int i = 0; i < copied; i++) {
+            int from = removed >= 0 && i >= removed ? i + 1 : i;
+            for (int j = target.isSymmetric() ? i : 0; j < copied; j++) {
+                int to = removed >= 0 && j >= removed ? j + 1 : j;
+                target.set(i, j, source.get(from, to));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of nodes.
+     * @return the node count
+     */
+    public int getNodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns the node locations.
+     * @return an unmodifiable list of node locations
+     */
+    public List<Pair> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the distance matrix, which must only be read.
+     * @return the matrix of distances between each pair of nodes
+     */
+    public EdgeMatrix getDistanceMatrix() {
+        return distanceMatrix;
+    }
+
+    /**
+     * Returns the k-d tree of the node locations, for nearest neighbour and radius queries.
+     * @return the spatial index
+     */
+    public KdTree getSpatialIndex() {
+        return spatialIndex;
+    }
+
+    /**
+     * Builds a closed tour by always moving to the nearest unvisited node, starting at node 0.
+     * @return the tour, with node 0 as its first and last entry
+     */
+    public int[] nearestNeighbourTour() {
+        return spatialIndex.nearestNeighbourTour(0);
+    }
+
+    /**
+     * Returns the nearest neighbours the ants choose from.
+     * @return the candidate list, or null when ants scan every node
+     */
+    public CandidateList getCandidateList() {
+        return candidateList;
+    }
+
+    /**
+     * Returns the nearest neighbours tried by the local search.
+     * @return the neighbour list, or null when the instance was built without local search
+     */
+    public CandidateList getLocalSearchCandidates() {
+        return localSearchCandidates;
+    }
+
+    /**
+     * Creates a matrix of distances between each pair of nodes.
+     * @param nodes A list of nodes used in the TSP.
+     * @param storage The layout of the matrix.
+     * @param computeDistances true to compute the distances from the coordinates on every read instead.
+     * @return A matrix representing the distances between each node pair.
+     */
+    public static EdgeMatrix createDistanceMatrix(List<Pair> nodes, MatrixStorage storage, boolean computeDistances) {
+        if (computeDistances) {
+            return new EuclideanEdgeMatrix(nodes);
+        }
+        EdgeMatrix edgeMatrixDistance = storage.create(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            // Symmetric layouts share one entry per edge, so only the upper triangle is computed
+            for (int j = edgeMatrixDistance.isSymmetric() ? i : 0; j < nodes.size(); j++) {
+                edgeMatrixDistance.set(i, j, Solver.calculateDistance(nodes.get(i), nodes.get(j)));
+            }
+        }
+        return edgeMatrixDistance;
+    }
+}
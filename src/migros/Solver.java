@@ -0,0 +1,808 @@
+package migros;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+/**
+ * This class implements the approaches to solve the Traveling Salesman Problem (TSP):
+ * Brute Force, Ant Colony Optimization (ACO), branch and bound and Held-Karp.
+ * A solver runs on a shared, read-only {@link ProblemInstance} and keeps its own pheromone levels and best
+ * path, so independent solvers can run concurrently on the same or different instances. A single solver
+ * is not thread-safe and runs one method at a time; the parameters are copied from the config when the
+ * solver is created.
+ */
+public class Solver {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();  // Source of allocation counts
+
+    private final ProblemInstance instance;  // Shared nodes, distances and neighbour lists
+    private final SolverConfig config;  // Private copy of the parameters
+
+    // Matrices to store distances and pheromone levels between nodes
+    private final EdgeMatrix edgeMatrixDistance;
+    private final PheromoneStore edgeMatrixPheromone;
+
+    // Cached selection weight of every edge, refreshed after each pheromone update
+    private ChoiceInfo choiceInfo;
+
+    // Nearest neighbours the ants choose from, null when ants scan every node
+    private final CandidateList candidateList;
+
+    // Variables to track the shortest path found
+    private double minDistance = Double.MAX_VALUE;
+    private int[] bestPath;
+
+    // Seed of the ants' random streams in the running or last ACO solve, and the iteration being built
+    private long solveSeed;
+    private int constructionIteration;
+
+    // Tour the next ACO solve starts from, null for a cold start
+    private int[] seedTour;
+
+    // Where the best tours of the colonies of a multi-colony solve meet, null for a single colony
+    private TourExchange tourExchange;
+
+    // Anytime state, read by other threads while a solve runs
+    private volatile BestTour currentBest;
+    private volatile boolean stopRequested;
+    private volatile StopReason stopReason;
+
+    // Receive the statistics of every ACO iteration
+    private final List<IterationListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a solver for an instance, starting from uniform pheromone levels, estimated from a nearest
+     * neighbour tour when the config's initial pheromone is 0.
+     * @param instance The nodes to solve, shared with other solvers.
+     * @param config The parameters of the solver, copied so later changes have no effect.
+     */
+    public Solver(ProblemInstance instance, SolverConfig config) {
+        this.instance = instance;
+        this.config = new SolverConfig(config);
+        this.edgeMatrixDistance = instance.getDistanceMatrix();
+        this.edgeMatrixPheromone = new PheromoneStore(this.config.getPheromoneStorage(), instance.getNodeCount());
+        this.edgeMatrixPheromone.fill(this.config.getInitialPheromone() > 0 ? this.config.getInitialPheromone()
+                : estimateInitialPheromone(instance, this.config));
+        this.candidateList = instance.getCandidateList();
+        if (this.config.getLocalSearchMode() != LocalSearchMode.NONE && instance.getLocalSearchCandidates() == null) {
+            throw new IllegalArgumentException("The instance was built without neighbour lists for the local search");
+        }
+    }
+
+    /**
+     * Registers a listener receiving the statistics of every ACO iteration.
+     * Statistics are only gathered while a listener is registered or a Flight Recorder recording
+     * has the "migros.Iteration" event enabled.
+     * @param listener The listener to add.
+     */
+    public void addListener(IterationListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addListener}.
+     * @param listener The listener to remove.
+     */
+    public void removeListener(IterationListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the instance this solver runs on.
+     * @return The shared instance.
+     */
+    public ProblemInstance getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the distance matrix of the instance.
+     * @return The matrix of distances between each pair of nodes.
+     */
+    public EdgeMatrix getDistanceMatrix() {
+        return edgeMatrixDistance;
+    }
+
+    /**
+     * Returns the pheromone matrix of this solver.
+     * @return The matrix of pheromone levels between each pair of nodes.
+     */
+    public EdgeMatrix getPheromoneMatrix() {
+        return edgeMatrixPheromone;
+    }
+
+    /**
+     * Returns the length of the best path found by the last method run.
+     * @return The length of the best path, or Double.MAX_VALUE before any method has run.
+     */
+    public double getBestLength() {
+        return minDistance;
+    }
+
+    /**
+     * Returns the best path found by the last method run.
+     * @return A copy of the best path, starting and ending at node 0, or null before any method has run.
+     */
+    public int[] getBestPath() {
+        return bestPath == null ? null : bestPath.clone();
+    }
+
+    /**
+     * Seeds this solver with what an earlier solve learned: the pheromone levels replace the current ones
+     * and the next ACO solve starts with the tour as its best path, so it can only improve on it.
+     * @param warmStart The pheromone levels and tour, for an instance with the same nodes as this solver's.
+     */
+    public void warmStart(WarmStart warmStart) {
+        int nodeCount = edgeMatrixPheromone.getNodeCount();
+        if (warmStart.getNodeCount() != nodeCount) {
+            throw new IllegalArgumentException("The warm start has " + warmStart.getNodeCount() + " nodes, the instance " + nodeCount);
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            for (int j = edgeMatrixPheromone.isSymmetric() ? i : 0; j < nodeCount; j++) {
+                edgeMatrixPheromone.set(i, j, warmStart.getPheromone(i, j));
+            }
+        }
+        int[] tour = warmStart.getTour();
+        if (tour != null && !isClosedTour(tour, nodeCount)) {
+            throw new IllegalArgumentException("The warm start tour does not visit every node once from node 0");
+        }
+        seedTour = tour;
+    }
+
+    /**
+     * Checks that a path starts and ends at node 0 and visits every other node exactly once.
+     * @param path The path to check.
+     * @param nodeCount The number of nodes.
+     * @return true if the path is a closed tour of every node.
+     */
+    private static boolean isClosedTour(int[] path, int nodeCount) {
+        if (path.length != nodeCount + 1 || path[0] != 0 || path[nodeCount] != 0) {
+            return false;
+        }
+        boolean[] seen = new boolean[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            if (path[i] < 0 || path[i] >= nodeCount || seen[path[i]]) {
+                return false;
+            }
+            seen[path[i]] = true;
+        }
+        return true;
+    }
+
+    /**
+     * Connects this solver to the other colonies of a multi-colony solve. Every migrationInterval iterations
+     * of the config the ACO solve offers its best tour to the exchange, and adopts the exchanged tour when it
+     * is shorter than its own. Set it before the solve starts.
+     * @param tourExchange The exchange shared by the colonies, or null to solve alone.
+     */
+    public void setTourExchange(TourExchange tourExchange) {
+        this.tourExchange = tourExchange;
+    }
+
+    /**
+     * Returns the best tour found so far by the running or last solve. Safe to call from any thread,
+     * for example to answer with the best tour available when a deadline is reached.
+     * @return The latest best tour, or null if the current solve has not completed an iteration yet.
+     */
+    public BestTour getCurrentBest() {
+        return currentBest;
+    }
+
+    /**
+     * Asks the running ACO solve to stop after its current iteration, or the next one to stop after its
+     * first iteration. Safe to call from any thread.
+     */
+    public void requestStop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Returns the seed of the running or last ACO solve: the seed of the config, or the random one drawn
+     * when the config has none. Running a solve with this seed in the config repeats it exactly.
+     * @return The seed of the solve.
+     */
+    public long getSeed() {
+        return solveSeed;
+    }
+
+    /**
+     * Returns why the last ACO solve ended.
+     * @return The stop reason, or null if no ACO solve has ended yet.
+     */
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    /**
+     * Executes the Ant Colony Optimization (ACO) algorithm to find the shortest path for the TSP problem.
+     * The same ants are reused by every iteration, so building the tours does not allocate.
+     * Ants of an iteration are built in parallel on threadCount threads, while the pheromone deposit,
+     * the evaporation and the best path search run afterwards in ant order so the result does not depend
+     * on how the threads were scheduled.
+     * Evaporation is lazy, see {@link PheromoneStore}, so the pheromone update only costs the deposited edges.
+     * The solve runs iterationCount iterations unless a stopping criterion of the config ends it earlier,
+     * see {@link #getStopReason()}. An interrupted or stopped solve ends after the current iteration.
+     * Every improvement is published to {@link #getCurrentBest()}. A solve after {@link #warmStart} starts
+     * from the learned pheromone levels and tour.
+     * @return An array of integers representing the best path found.
+     */
+    public int[] antColonyOptimization(){
+        int nodeCount = edgeMatrixPheromone.getNodeCount(); // Number of nodes in the graph
+        int antCount = config.getAntCount();
+        double bestPathLengthOverall = Double.MAX_VALUE;
+        int[] bestPathTakenOverall = new int[nodeCount + 1];
+        int[] rankOrder = new int[antCount]; // Ants sorted by path length, for rank-based deposits
+        int[] measuredNodes = ConvergenceMeasures.sampleNodes(nodeCount); // Nodes the convergence measures use
+        long startNanos = System.nanoTime();
+        long deadline = config.getTimeLimitMillis() > 0 ? startNanos + config.getTimeLimitMillis() * 1_000_000 : Long.MAX_VALUE;
+        long lastIterationNanos = 0; // Duration of the previous iteration, to predict the next one
+        int lastImprovement = 0; // Iteration the best path last improved in
+        double branchingFactor = Double.MAX_VALUE; // Convergence of the pheromone levels after the previous iteration
+        currentBest = null;
+        stopReason = StopReason.ITERATIONS;
+        solveSeed = config.getSeed() != 0 ? config.getSeed() : ThreadLocalRandom.current().nextLong();
+
+        // A warm start begins with the seeded tour as the best path, and MMAS bounds derived from it
+        if (seedTour != null) {
+            bestPathLengthOverall = calculateTotalDistance(seedTour);
+            System.arraycopy(seedTour, 0, bestPathTakenOverall, 0, seedTour.length);
+            currentBest = new BestTour(seedTour.clone(), bestPathLengthOverall, 0, 0);
+            if (config.getDepositPolicy() == DepositPolicy.MMAS) {
+                updateBounds(bestPathLengthOverall, false);
+            }
+            seedTour = null;
+        }
+
+        // The colony is allocated once and its ants are reset for every iteration
+        Ant[] ants = new Ant[antCount];
+        for (int j = 0; j < antCount; j++) {
+            ants[j] = new Ant(0, nodeCount);
+        }
+
+        int workerCount = Math.max(1, Math.min(config.getThreadCount(), antCount));
+        ExecutorService executor = workerCount > 1 ? Executors.newFixedThreadPool(workerCount) : null;
+        long[] workerThreadIds = new long[workerCount]; // Threads building the ants, for allocation counts
+        List<Callable<Void>> constructionTasks = createConstructionTasks(ants, nodeCount, workerCount, workerThreadIds);
+        TourImprover bestAntImprover = null;
+        TourImprover sequentialImprover = null; // The construction tasks create their own for EVERY_ANT
+        switch (config.getLocalSearchMode()) {
+            case NONE -> { }
+            case ITERATION_BEST -> bestAntImprover = createLocalSearch();
+            case EVERY_ANT -> sequentialImprover = executor == null ? createLocalSearch() : null;
+        }
+        AntRandom sequentialRandom = executor == null ? new AntRandom(solveSeed) : null;
+
+        // The heuristic part of the weights is computed once, the pheromone part after every update
+        choiceInfo = new ChoiceInfo(edgeMatrixDistance, config.getAlpha(), config.getBeta(), config.getPheromoneStorage());
+        choiceInfo.update(edgeMatrixPheromone);
+
+        try {
+            // Loop through each iteration as specified by iterationCount
+            for (int i = 0; i < config.getIterationCount(); i++) {
+                // Stop early when a stopping criterion is met, keeping at least one complete iteration
+                if (i > 0) {
+                    StopReason reason = checkStop(i, deadline, lastIterationNanos, lastImprovement, branchingFactor);
+                    if (reason != null) {
+                        stopReason = reason;
+                        break;
+                    }
+                }
+
+                IterationEvent event = new IterationEvent();
+                event.begin();
+                boolean instrumented = !listeners.isEmpty() || event.isEnabled();
+                long allocatedBefore = instrumented ? allocatedBytes(workerThreadIds) : 0;
+                long constructionStart = System.nanoTime();
+                constructionIteration = i;
+
+                // Create and process each ant in the colony
+                if (executor == null) {
+                    constructAnts(ants, 0, antCount, nodeCount, sequentialImprover, sequentialRandom);
+                } else {
+                    runAll(executor, constructionTasks);
+                }
+                long localSearchStart = System.nanoTime();
+
+                // Improve the best tour of the iteration before it deposits pheromone
+                if (bestAntImprover != null) {
+                    findBestAnt(ants).improveTour(bestAntImprover, edgeMatrixDistance);
+                }
+                long depositStart = System.nanoTime();
+
+                // Check if the newly found path is the best one
+                Ant bestAnt = findBestAnt(ants);
+                if (bestAnt.getPathLength() < bestPathLengthOverall) {
+                    boolean first = bestPathLengthOverall == Double.MAX_VALUE;
+                    bestPathLengthOverall = bestAnt.getPathLength();
+                    System.arraycopy(bestAnt.getPathTaken(), 0, bestPathTakenOverall, 0, bestAnt.getPathSize());
+                    lastImprovement = i;
+                    currentBest = new BestTour(bestPathTakenOverall.clone(), bestPathLengthOverall, i, depositStart - startNanos);
+                    if (config.getDepositPolicy() == DepositPolicy.MMAS) {
+                        updateBounds(bestPathLengthOverall, first);
+                    }
+                }
+
+                // Migration, the colonies exchange their best tours between iterations
+                int migrationInterval = config.getMigrationInterval();
+                if (tourExchange != null && migrationInterval > 0 && (i + 1) % migrationInterval == 0) {
+                    tourExchange.offer(currentBest);
+                    BestTour immigrant = tourExchange.getBest();
+                    if (immigrant.getLength() < bestPathLengthOverall) {
+                        bestPathLengthOverall = immigrant.getLength();
+                        System.arraycopy(immigrant.getPath(), 0, bestPathTakenOverall, 0, nodeCount + 1);
+                        lastImprovement = i;
+                        currentBest = new BestTour(bestPathTakenOverall.clone(), bestPathLengthOverall, i, System.nanoTime() - startNanos);
+                        if (config.getDepositPolicy() == DepositPolicy.MMAS) {
+                            updateBounds(bestPathLengthOverall, false);
+                        }
+                        // The adopted tour deposits like a best ant, so the colony searches around it
+                        Ant.depositPheromones(bestPathTakenOverall, nodeCount + 1, edgeMatrixPheromone,
+                                config.getQ() / bestPathLengthOverall);
+                    }
+                }
+
+                // Pheromone update phase, always applied in ant order
+                depositPheromones(ants, bestAnt, bestPathTakenOverall, bestPathLengthOverall, rankOrder);
+                long evaporationStart = System.nanoTime();
+
+                // Evaporation of pheromones, which only scales the global factor of the store
+                edgeMatrixPheromone.scale(config.getEvaporation());
+                choiceInfo.update(edgeMatrixPheromone);
+
+                long end = System.nanoTime();
+                lastIterationNanos = end - constructionStart;
+                if (config.getStagnationBranching() > 0) {
+                    branchingFactor = ConvergenceMeasures.branchingFactor(edgeMatrixPheromone, measuredNodes);
+                }
+                if (instrumented) {
+                    long allocated = allocatedBefore < 0 ? -1 : allocatedBytes(workerThreadIds) - allocatedBefore;
+                    IterationStats stats = new IterationStats(i, antCount, bestAnt.getPathLength(), meanPathLength(ants),
+                            bestPathLengthOverall, localSearchStart - constructionStart, depositStart - localSearchStart,
+                            evaporationStart - depositStart, end - evaporationStart, allocated,
+                            ConvergenceMeasures.entropy(choiceInfo, measuredNodes),
+                            config.getStagnationBranching() > 0 ? branchingFactor
+                                    : ConvergenceMeasures.branchingFactor(edgeMatrixPheromone, measuredNodes));
+                    publish(stats, event);
+                }
+            }
+        } finally {
+            stopRequested = false;
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+        minDistance = bestPathLengthOverall;
+        bestPath = bestPathTakenOverall;
+        return bestPathTakenOverall.clone();
+    }
+
+    /**
+     * Checks the stopping criteria before an iteration.
+     * @param iteration The iteration about to start.
+     * @param deadline The System.nanoTime() by which the solve must end, Long.MAX_VALUE for none.
+     * @param lastIterationNanos The duration of the previous iteration.
+     * @param lastImprovement The iteration the best path last improved in.
+     * @param branchingFactor The lambda-branching factor after the previous iteration.
+     * @return The reason to stop, or null to run the iteration.
+     */
+    private StopReason checkStop(int iteration, long deadline, long lastIterationNanos, int lastImprovement, double branchingFactor) {
+        if (Thread.currentThread().isInterrupted()) {
+            return StopReason.INTERRUPTED;
+        }
+        if (stopRequested) {
+            return StopReason.STOPPED;
+        }
+        if (deadline != Long.MAX_VALUE && deadline - System.nanoTime() < lastIterationNanos) {
+            return StopReason.TIME_LIMIT;
+        }
+        if (config.getPatience() > 0 && iteration - lastImprovement >= config.getPatience()) {
+            return StopReason.PATIENCE;
+        }
+        if (branchingFactor <= config.getStagnationBranching()) {
+            return StopReason.STAGNATION;
+        }
+        return null;
+    }
+
+    /**
+     * Hands the statistics of an iteration to the listeners and to Flight Recorder.
+     * @param stats The statistics of the iteration.
+     * @param event The Flight Recorder event started with the iteration.
+     */
+    private void publish(IterationStats stats, IterationEvent event) {
+        for (IterationListener listener : listeners) {
+            listener.iterationCompleted(stats);
+        }
+        if (event.shouldCommit()) {
+            event.iteration = stats.getIteration();
+            event.bestLength = stats.getBestLength();
+            event.iterationBestLength = stats.getIterationBestLength();
+            event.meanLength = stats.getMeanLength();
+            event.construction = stats.getConstructionNanos();
+            event.localSearch = stats.getLocalSearchNanos();
+            event.deposit = stats.getDepositNanos();
+            event.evaporation = stats.getEvaporationNanos();
+            event.antsPerSecond = stats.getAntsPerSecond();
+            event.allocated = stats.getAllocatedBytes();
+            event.entropy = stats.getEntropy();
+            event.branchingFactor = stats.getBranchingFactor();
+            event.commit();
+        }
+    }
+
+    /**
+     * Calculates the mean path length of the ants of an iteration.
+     * @param ants The ants after completing their path finding.
+     * @return The mean path length.
+     */
+    private static double meanPathLength(Ant[] ants) {
+        double total = 0;
+        for (Ant ant : ants) {
+            total += ant.getPathLength();
+        }
+        return total / ants.length;
+    }
+
+    /**
+     * Returns the bytes allocated so far by the calling thread and the construction workers.
+     * @param workerThreadIds The ids of the worker threads, 0 for workers that have not run yet.
+     * @return The allocated bytes, or -1 if the JVM cannot measure them.
+     */
+    private static long allocatedBytes(long[] workerThreadIds) {
+        if (!(THREADS instanceof com.sun.management.ThreadMXBean threads) || !threads.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long total = threads.getCurrentThreadAllocatedBytes();
+        for (long threadId : workerThreadIds) {
+            if (threadId != 0 && threadId != Thread.currentThread().threadId()) {
+                total += Math.max(0, threads.getThreadAllocatedBytes(threadId));
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Deposits the pheromone of one iteration according to the deposit policy.
+     * @param ants The ants of the iteration.
+     * @param iterationBest The ant with the shortest path of the iteration.
+     * @param bestTour The best path found so far.
+     * @param bestLength The length of the best path found so far.
+     * @param rankOrder Scratch array of one entry per ant, used to rank them.
+     */
+    private void depositPheromones(Ant[] ants, Ant iterationBest, int[] bestTour, double bestLength, int[] rankOrder) {
+        double Q = config.getQ();
+        int tourSize = bestTour.length;
+        switch (config.getDepositPolicy()) {
+            case AS -> {
+                for (Ant ant : ants) {
+                    ant.updatePheromones(edgeMatrixPheromone, Q, edgeMatrixDistance);
+                }
+            }
+            case ELITIST -> {
+                for (Ant ant : ants) {
+                    ant.updatePheromones(edgeMatrixPheromone, Q, edgeMatrixDistance);
+                }
+                Ant.depositPheromones(bestTour, tourSize, edgeMatrixPheromone, config.getElitistWeight() * Q / bestLength);
+            }
+            case RANK -> {
+                int rankCount = config.getRankCount();
+                rankAnts(ants, rankOrder);
+                for (int r = 0; r < Math.min(rankCount - 1, ants.length); r++) {
+                    Ant ant = ants[rankOrder[r]];
+                    Ant.depositPheromones(ant.getPathTaken(), ant.getPathSize(), edgeMatrixPheromone,
+                            (rankCount - 1 - r) * Q / ant.getPathLength());
+                }
+                Ant.depositPheromones(bestTour, tourSize, edgeMatrixPheromone, rankCount * Q / bestLength);
+            }
+            case MMAS -> iterationBest.updatePheromones(edgeMatrixPheromone, Q, edgeMatrixDistance);
+        }
+    }
+
+    /**
+     * Sorts the ant indices by path length, shortest first, ties kept in ant order.
+     * @param ants The ants of the iteration.
+     * @param order Receives the ant indices in rank order.
+     */
+    private static void rankAnts(Ant[] ants, int[] order) {
+        for (int j = 0; j < ants.length; j++) {
+            int k = j;
+            while (k > 0 && ants[order[k - 1]].getPathLength() > ants[j].getPathLength()) {
+                order[k] = order[k - 1];
+                k--;
+            }
+            order[k] = j;
+        }
+    }
+
+    /**
+     * Derives the MAX-MIN bounds from the best path found so far. The upper bound is the level an edge
+     * converges to when the best path deposits on it every iteration; the lower bound is set so that, once
+     * converged, an ant rebuilds the best path with probability bestProbability.
+     * Trails start at the upper bound, so the first call also fills the matrix with it.
+     * @param bestLength The length of the best path found so far.
+     * @param first true when this is the first path found.
+     */
+    private void updateBounds(double bestLength, boolean first) {
+        int nodeCount = edgeMatrixPheromone.getNodeCount();
+        double evaporationRate = 1 - config.getEvaporation();
+        double maximum = evaporationRate > 0 ? config.getQ() / (evaporationRate * bestLength) : Double.POSITIVE_INFINITY;
+        double root = Math.pow(config.getBestProbability(), 1.0 / nodeCount);
+        double averageChoices = nodeCount / 2.0;
+        double minimum = 0;
+        if (averageChoices > 1 && Double.isFinite(maximum)) {
+            minimum = Math.min(maximum * (1 - root) / ((averageChoices - 1) * root), maximum);
+        }
+        edgeMatrixPheromone.setBounds(minimum, maximum);
+        if (first && Double.isFinite(maximum)) {
+            edgeMatrixPheromone.fill(maximum);
+        }
+    }
+
+    /**
+     * Splits the colony into one contiguous range of ants per worker.
+     * The tasks are created once and reused by every iteration, each with its own local search stage if needed.
+     * @param ants The array the constructed ants are stored in, indexed by ant number.
+     * @param nodeCount The number of nodes in the graph.
+     * @param workerCount The number of workers sharing the colony.
+     * @param workerThreadIds Receives the id of the thread that last ran each task.
+     * @return A list of tasks, each building its own range of ants.
+     */
+    private List<Callable<Void>> createConstructionTasks(Ant[] ants, int nodeCount, int workerCount, long[] workerThreadIds) {
+        List<Callable<Void>> tasks = new ArrayList<>(workerCount);
+        for (int w = 0; w < workerCount; w++) {
+            int from = (int) ((long) ants.length * w / workerCount);
+            int to = (int) ((long) ants.length * (w + 1) / workerCount);
+            TourImprover improver = config.getLocalSearchMode() == LocalSearchMode.EVERY_ANT ? createLocalSearch() : null;
+            AntRandom random = new AntRandom(solveSeed);
+            int worker = w;
+            tasks.add(() -> {
+                workerThreadIds[worker] = Thread.currentThread().threadId();
+                constructAnts(ants, from, to, nodeCount, improver, random);
+                return null;
+            });
+        }
+        return tasks;
+    }
+
+    /**
+     * Builds the complete tours of the ants in the range [from, to), reusing the ants already in the array.
+     * Every ant draws from its own random stream, keyed by the solve seed, the iteration and the ant number,
+     * so the tours do not depend on which thread builds which ant; the shared matrices are only read.
+     * @param ants The array the constructed ants are stored in.
+     * @param from The first ant index to build.
+     * @param to The ant index after the last one to build.
+     * @param nodeCount The number of nodes in the graph.
+     * @param improver The local search run on every tour, or null to keep the tours as built.
+     * @param random The random source of the thread building the ants, reset to the stream of every ant.
+     */
+    private void constructAnts(Ant[] ants, int from, int to, int nodeCount, TourImprover improver, AntRandom random) {
+        for (int j = from; j < to; j++) {
+            Ant myAnt = ants[j];
+            random.reset(solveSeed, constructionIteration, j);
+            myAnt.reset(0);
+            while (!myAnt.allNodesVisited()) {
+                if (candidateList == null) {
+                    myAnt.selectNextNode(choiceInfo, edgeMatrixDistance, random);
+                } else {
+                    myAnt.selectNextNode(choiceInfo, edgeMatrixDistance, candidateList, random);
+                }
+            }
+            myAnt.moveToNextNode(0, edgeMatrixDistance); // Move ant back to the starting node
+            if (improver != null) {
+                myAnt.improveTour(improver, edgeMatrixDistance);
+            }
+        }
+    }
+
+    /**
+     * Creates the local search stage, 2-opt followed by Or-opt, over the nearest neighbours of every node.
+     * @return A new local search stage, to be used by a single thread.
+     */
+    private TourImprover createLocalSearch() {
+        CandidateList neighbours = instance.getLocalSearchCandidates();
+        TourImprover improver = new TwoOptImprover(neighbours).andThen(new OrOptImprover(neighbours));
+        if (!config.isComputeDistances() || config.getDistanceCacheSize() <= 0) {
+            return improver;
+        }
+        // The local search reads the same tour edges many times, each thread caches them in front of the square roots
+        EdgeMatrix cachedDistances = new CachedEdgeMatrix(edgeMatrixDistance, config.getDistanceCacheSize());
+        return (tour, distanceMatrix) -> improver.improve(tour, cachedDistances);
+    }
+
+    /**
+     * Runs the given tasks on the executor and waits until all of them have finished.
+     * @param executor The executor running the tasks.
+     * @param tasks The tasks to run.
+     */
+    private static void runAll(ExecutorService executor, List<Callable<Void>> tasks) {
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ant construction was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ant construction failed", e.getCause());
+        }
+    }
+
+    /**
+     * Implements the brute force approach to solving the Traveling Salesman Problem.
+     * @return An array representing the shortest path found.
+     */
+    public int[] bruteForceTSP() {
+        int[] numbers = IntStream.rangeClosed(1, instance.getNodeCount() - 1).toArray();
+        int[] path = new int[numbers.length + 2];
+        path[0] = 0;
+        path[path.length - 1] = 0;
+        long startNanos = System.nanoTime();
+        minDistance = Double.MAX_VALUE;
+        bestPath = null;
+        generatePermutations(numbers, 0, path);
+        return publishExactResult(startNanos);
+    }
+
+    /**
+     * Solves the Traveling Salesman Problem exactly with a parallel branch and bound search,
+     * which prunes partial paths instead of enumerating every permutation.
+     * @return An array representing the shortest path found.
+     */
+    public int[] branchAndBoundTSP() {
+        long startNanos = System.nanoTime();
+        BranchAndBound branchAndBound = new BranchAndBound(edgeMatrixDistance, config.getThreadCount());
+        bestPath = branchAndBound.solve();
+        minDistance = branchAndBound.getBestLength();
+        return publishExactResult(startNanos);
+    }
+
+    /**
+     * Solves the Traveling Salesman Problem exactly with the Held-Karp dynamic program.
+     * See {@link HeldKarp#estimateMemory(int)} for the memory the table needs.
+     * @return An array representing the shortest path found.
+     * @throws IllegalArgumentException If the instance is too large for the table to fit in memory.
+     */
+    public int[] heldKarpTSP() {
+        long startNanos = System.nanoTime();
+        HeldKarp heldKarp = new HeldKarp(edgeMatrixDistance, config.getThreadCount());
+        bestPath = heldKarp.solve();
+        minDistance = heldKarp.getBestLength();
+        return publishExactResult(startNanos);
+    }
+
+    /**
+     * Publishes the result of an exact method to {@link #getCurrentBest()}.
+     * @param startNanos The System.nanoTime() the method started at.
+     * @return A copy of the best path.
+     */
+    private int[] publishExactResult(long startNanos) {
+        currentBest = bestPath == null ? null : new BestTour(bestPath.clone(), minDistance, 0, System.nanoTime() - startNanos);
+        return getBestPath();
+    }
+
+    /**
+     * Identifies the ant with the shortest path in a given iteration.
+     * Ties are resolved in favour of the lower ant index.
+     * @param ants The ants after completing their path finding.
+     * @return The ant whose path is the shortest route found.
+     */
+    public static Ant findBestAnt(Ant[] ants) {
+        Ant bestAnt = ants[0];
+        for (Ant ant : ants) {
+            if (ant.getPathLength() < bestAnt.getPathLength()) {
+                bestAnt = ant;
+            }
+        }
+        return bestAnt;
+    }
+
+    /**
+     * Creates a matrix of pheromone levels for each edge between nodes, initializing with a default value.
+     * @param nodeCount The number of nodes used in the TSP.
+     * @param storage The layout of the matrix.
+     * @return A matrix holding the initial pheromone levels.
+     */
+    public static EdgeMatrix createPheromoneMatrix(int nodeCount, MatrixStorage storage) {
+        EdgeMatrix edgeMatrixPheromone = storage.create(nodeCount);
+        edgeMatrixPheromone.fill(1.0);
+        return edgeMatrixPheromone;
+    }
+
+    /**
+     * Estimates the initial pheromone level as the deposit of one iteration of ants building tours as long
+     * as a nearest neighbour tour, so the first deposits neither vanish in nor drown out the initial level.
+     * @param instance The nodes to solve.
+     * @param config The parameters giving the ant count and the deposit factor.
+     * @return The estimated pheromone level of every edge.
+     */
+    private static double estimateInitialPheromone(ProblemInstance instance, SolverConfig config) {
+        int[] tour = instance.nearestNeighbourTour();
+        EdgeMatrix distances = instance.getDistanceMatrix();
+        double length = 0;
+        for (int i = 0; i < tour.length - 1; i++) {
+            length += distances.get(tour[i], tour[i + 1]);
+        }
+        return length > 0 ? config.getAntCount() * config.getQ() / length : 1.0;
+    }
+
+    /**
+     * Calculates the total distance of a given path.
+     * @param path An array of integers representing a path through nodes.
+     * @return The total distance traveled in the given path.
+     */
+    public double calculateTotalDistance(int[] path) {
+        double distance = 0;
+        for (int i = 0; i < path.length - 1; i++) {
+            distance += edgeMatrixDistance.get(path[i], path[i + 1]);
+        }
+        return distance;
+    }
+
+    /**
+     * Reads a file to extract node coordinates, returning a list of node pairs.
+     * The format is chosen from the extension, see {@link CoordinateLoader#load}.
+     * @param txtname The name of the file to read from.
+     * @return A List of Pair objects representing node coordinates.
+     * @throws IOException If the file cannot be read or is malformed.
+     */
+    public static List<Pair> readTXT(String txtname) throws IOException {
+        return CoordinateLoader.load(Path.of(txtname)).toPairs();
+    }
+
+    /**
+     * Calculates the Euclidean distance between two nodes.
+     * @param node1 The first node.
+     * @param node2 The second node.
+     * @return The distance between node1 and node2.
+     */
+    public static double calculateDistance(Pair node1, Pair node2){
+        double xDistance = Math.abs(node1.getX() - node2.getX());
+        double yDistance = Math.abs(node1.getY() - node2.getY());
+        return Math.sqrt(xDistance * xDistance + yDistance * yDistance);
+    }
+
+    /**
+     * Recursive method to generate all permutations of path configurations.
+     * @param numbers An array of integers representing node indices.
+     * @param index The current index to consider for swapping.
+     * @param path The current path configuration being built.
+     */
+    private void generatePermutations(int[] numbers, int index, int[] path) {
+        if (index == numbers.length) {
+            System.arraycopy(numbers, 0, path, 1, numbers.length);
+            double currentDistance = calculateTotalDistance(path);
+            if (currentDistance < minDistance) {
+                minDistance = currentDistance;
+                bestPath = Arrays.copyOf(path, path.length);
+            }
+        } else {
+            for (int i = index; i < numbers.length; i++) {
+                swap(numbers, index, i);
+                generatePermutations(numbers, index + 1, path);
+                swap(numbers, index, i); // Backtrack to try another permutation
+            }
+        }
+    }
+
+    /**
+     * Swaps two elements in an array of integers.
+     * @param numbers The array containing the elements to swap.
+     * @param i The index of the first element.
+     * @param j The index of the second element.
+     */
+    private static void swap(int[] numbers, int i, int j) {
+        int temp = numbers[i];
+        numbers[i] = numbers[j];
+        numbers[j] = temp;
+    }
+}
\ No newline at end of file
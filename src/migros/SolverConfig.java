@@ -0,0 +1,485 @@
+package migros;
+
+/**
+ * Parameters of a {@link Solver} and of the {@link ProblemInstance} it runs on.
+ * A config is a plain mutable holder meant to be filled by one thread; solvers and instances copy
+ * the values they need when they are created, so changing a config never affects a running solve.
+ */
+public class SolverConfig {
+    // ACO parameters
+    private int iterationCount = 100;
+    private int antCount = 50;
+    private double alpha = 0.8; // Importance of pheromone in path selection
+    private double beta = 5; // Importance of distance in path selection
+    private double evaporation = 0.9; // Rate at which pheromone evaporates
+    private double Q = 0.1; // Pheromone deposit factor
+    private double initialPheromone = 1.0; // Starting level of every edge, 0 estimates it from a nearest neighbour tour
+    private int candidateCount = 0; // Nearest neighbours considered per step, 0 scans every node
+
+    // Stopping criteria, checked between iterations, the solve ends at iterationCount at the latest
+    private long timeLimitMillis = 0; // Wall-clock budget of a solve, 0 for none
+    private int patience = 0; // Iterations without improvement before stopping, 0 for none
+    private double stagnationBranching = 0; // Stop once the lambda-branching factor falls to this, 0 for never
+
+    // Pheromone deposit, see DepositPolicy for what each policy deposits
+    private DepositPolicy depositPolicy = DepositPolicy.AS;
+    private double elitistWeight = 10; // Weight of the best tour so far with ELITIST
+    private int rankCount = 6; // Weight of the best tour so far with RANK, rankCount - 1 ants also deposit
+    private double bestProbability = 0.05; // Chance MMAS should rebuild its best tour at convergence, sets the lower bound
+
+    // Matrix layouts, see MatrixStorage for the memory each one needs
+    private MatrixStorage pheromoneStorage = MatrixStorage.FLAT;
+    private MatrixStorage distanceStorage = MatrixStorage.FLAT;
+    private boolean computeDistances = false; // true computes distances from coordinates instead of storing them
+    private int distanceCacheSize = 0; // Computed distances cached per local search thread, 0 for none
+
+    // Local search applied to the tours before the pheromone update
+    private LocalSearchMode localSearchMode = LocalSearchMode.NONE;
+    private int localSearchNeighbours = 10; // Neighbours tried per node when no candidate list is set
+
+    // Number of threads a single solve uses, keep 1 when many solves run concurrently
+    private int threadCount = Runtime.getRuntime().availableProcessors(); // 1 builds ants sequentially
+
+    private long seed = 0; // Seed of the ants' random choices, 0 draws a new one for every solve
+    private int migrationInterval = 0; // Iterations between best tour exchanges of a multi-colony solve, 0 for never
+
+    /**
+     * Creates a config with the default parameters.
+     */
+    public SolverConfig() {
+    }
+
+    /**
+     * Creates a copy of another config.
+     * @param other the config to copy
+     */
+    public SolverConfig(SolverConfig other) {
+        iterationCount = other.iterationCount;
+        antCount = other.antCount;
+        alpha = other.alpha;
+        beta = other.beta;
+        evaporation = other.evaporation;
+        Q = other.Q;
+        initialPheromone = other.initialPheromone;
+        candidateCount = other.candidateCount;
+        timeLimitMillis = other.timeLimitMillis;
+        patience = other.patience;
+        stagnationBranching = other.stagnationBranching;
+        depositPolicy = other.depositPolicy;
+        elitistWeight = other.elitistWeight;
+        rankCount = other.rankCount;
+        bestProbability = other.bestProbability;
+        pheromoneStorage = other.pheromoneStorage;
+        distanceStorage = other.distanceStorage;
+        computeDistances = other.computeDistances;
+        distanceCacheSize = other.distanceCacheSize;
+        localSearchMode = other.localSearchMode;
+        localSearchNeighbours = other.localSearchNeighbours;
+        threadCount = other.threadCount;
+        seed = other.seed;
+        migrationInterval = other.migrationInterval;
+    }
+
+    /**
+     * Returns the number of ACO iterations.
+     * @return the iteration count
+     */
+    public int getIterationCount() {
+        return iterationCount;
+    }
+
+    /**
+     * Sets the number of ACO iterations.
+     * @param iterationCount the iteration count
+     */
+    public void setIterationCount(int iterationCount) {
+        this.iterationCount = iterationCount;
+    }
+
+    /**
+     * Returns the number of ants per iteration.
+     * @return the ant count
+     */
+    public int getAntCount() {
+        return antCount;
+    }
+
+    /**
+     * Sets the number of ants per iteration.
+     * @param antCount the ant count, at least 1
+     */
+    public void setAntCount(int antCount) {
+        if (antCount < 1) {
+            throw new IllegalArgumentException("At least one ant is needed, got " + antCount);
+        }
+        this.antCount = antCount;
+    }
+
+    /**
+     * Returns the importance of pheromone in path selection.
+     * @return the pheromone exponent
+     */
+    public double getAlpha() {
+        return alpha;
+    }
+
+    /**
+     * Sets the importance of pheromone in path selection.
+     * @param alpha the pheromone exponent
+     */
+    public void setAlpha(double alpha) {
+        this.alpha = alpha;
+    }
+
+    /**
+     * Returns the importance of distance in path selection.
+     * @return the heuristic exponent
+     */
+    public double getBeta() {
+        return beta;
+    }
+
+    /**
+     * Sets the importance of distance in path selection.
+     * @param beta the heuristic exponent
+     */
+    public void setBeta(double beta) {
+        this.beta = beta;
+    }
+
+    /**
+     * Returns the factor every pheromone level is multiplied with after each iteration.
+     * @return the evaporation factor
+     */
+    public double getEvaporation() {
+        return evaporation;
+    }
+
+    /**
+     * Sets the factor every pheromone level is multiplied with after each iteration.
+     * @param evaporation the evaporation factor
+     */
+    public void setEvaporation(double evaporation) {
+        this.evaporation = evaporation;
+    }
+
+    /**
+     * Returns the pheromone deposit factor.
+     * @return the deposit factor
+     */
+    public double getQ() {
+        return Q;
+    }
+
+    /**
+     * Sets the pheromone deposit factor.
+     * @param Q the deposit factor
+     */
+    public void setQ(double Q) {
+        this.Q = Q;
+    }
+
+    /**
+     * Returns the pheromone level of every edge at the start of a solve.
+     * @return the initial level, 0 when it is estimated from a nearest neighbour tour
+     */
+    public double getInitialPheromone() {
+        return initialPheromone;
+    }
+
+    /**
+     * Sets the pheromone level of every edge at the start of a solve. With 0 the level is estimated as
+     * antCount * Q / L, L being the length of a nearest neighbour tour, the level one iteration of ants
+     * building tours of that length would deposit.
+     * @param initialPheromone the initial level, 0 to estimate it
+     */
+    public void setInitialPheromone(double initialPheromone) {
+        this.initialPheromone = initialPheromone;
+    }
+
+    /**
+     * Returns the number of nearest neighbours the ants choose from.
+     * @return the candidate count, 0 when ants scan every node
+     */
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    /**
+     * Sets the number of nearest neighbours the ants choose from.
+     * @param candidateCount the candidate count, 0 to scan every node
+     */
+    public void setCandidateCount(int candidateCount) {
+        this.candidateCount = candidateCount;
+    }
+
+    /**
+     * Returns the wall-clock budget of an ACO solve.
+     * @return the time limit in milliseconds, 0 for none
+     */
+    public long getTimeLimitMillis() {
+        return timeLimitMillis;
+    }
+
+    /**
+     * Sets the wall-clock budget of an ACO solve. The solve stops before an iteration that is not expected
+     * to finish within the budget, judging by the duration of the previous one; the first iteration always runs.
+     * @param timeLimitMillis the time limit in milliseconds, 0 for none
+     */
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * Returns the number of iterations without improvement after which an ACO solve stops.
+     * @return the patience, 0 for none
+     */
+    public int getPatience() {
+        return patience;
+    }
+
+    /**
+     * Sets the number of iterations without improvement after which an ACO solve stops.
+     * @param patience the patience, 0 for none
+     */
+    public void setPatience(int patience) {
+        this.patience = patience;
+    }
+
+    /**
+     * Returns the lambda-branching factor at which an ACO solve is considered stagnated and stops.
+     * @return the stagnation threshold, 0 for never
+     */
+    public double getStagnationBranching() {
+        return stagnationBranching;
+    }
+
+    /**
+     * Sets the lambda-branching factor at which an ACO solve is considered stagnated and stops.
+     * The factor is the mean number of edges per node with a pheromone level in the upper 95% of its range,
+     * it approaches 2 once every ant follows the same tour, so thresholds slightly above 2 work best.
+     * @param stagnationBranching the stagnation threshold, 0 for never
+     */
+    public void setStagnationBranching(double stagnationBranching) {
+        this.stagnationBranching = stagnationBranching;
+    }
+
+    /**
+     * Returns which ants deposit pheromone after each iteration.
+     * @return the deposit policy
+     */
+    public DepositPolicy getDepositPolicy() {
+        return depositPolicy;
+    }
+
+    /**
+     * Sets which ants deposit pheromone after each iteration.
+     * @param depositPolicy the deposit policy
+     */
+    public void setDepositPolicy(DepositPolicy depositPolicy) {
+        this.depositPolicy = depositPolicy;
+    }
+
+    /**
+     * Returns the weight of the best tour found so far with {@link DepositPolicy#ELITIST}.
+     * @return the elitist weight
+     */
+    public double getElitistWeight() {
+        return elitistWeight;
+    }
+
+    /**
+     * Sets the weight of the best tour found so far with {@link DepositPolicy#ELITIST}.
+     * @param elitistWeight the elitist weight
+     */
+    public void setElitistWeight(double elitistWeight) {
+        this.elitistWeight = elitistWeight;
+    }
+
+    /**
+     * Returns the number of ranks depositing with {@link DepositPolicy#RANK}.
+     * @return the rank count
+     */
+    public int getRankCount() {
+        return rankCount;
+    }
+
+    /**
+     * Sets the number of ranks depositing with {@link DepositPolicy#RANK}: the best tour so far and
+     * the rankCount - 1 best ants of the iteration.
+     * @param rankCount the rank count, at least 1
+     */
+    public void setRankCount(int rankCount) {
+        if (rankCount < 1) {
+            throw new IllegalArgumentException("At least one rank is needed, got " + rankCount);
+        }
+        this.rankCount = rankCount;
+    }
+
+    /**
+     * Returns the probability of rebuilding the best tour at convergence, which sets the MMAS lower bound.
+     * @return the best tour probability
+     */
+    public double getBestProbability() {
+        return bestProbability;
+    }
+
+    /**
+     * Sets the probability of rebuilding the best tour at convergence, which sets the MMAS lower bound.
+     * Smaller values give a higher lower bound and more exploration.
+     * @param bestProbability the best tour probability, between 0 and 1
+     */
+    public void setBestProbability(double bestProbability) {
+        this.bestProbability = bestProbability;
+    }
+
+    /**
+     * Returns the layout of the pheromone matrix.
+     * @return the pheromone storage
+     */
+    public MatrixStorage getPheromoneStorage() {
+        return pheromoneStorage;
+    }
+
+    /**
+     * Sets the layout of the pheromone matrix.
+     * @param pheromoneStorage the pheromone storage
+     */
+    public void setPheromoneStorage(MatrixStorage pheromoneStorage) {
+        this.pheromoneStorage = pheromoneStorage;
+    }
+
+    /**
+     * Returns the layout of the distance matrix.
+     * @return the distance storage
+     */
+    public MatrixStorage getDistanceStorage() {
+        return distanceStorage;
+    }
+
+    /**
+     * Sets the layout of the distance matrix.
+     * @param distanceStorage the distance storage
+     */
+    public void setDistanceStorage(MatrixStorage distanceStorage) {
+        this.distanceStorage = distanceStorage;
+    }
+
+    /**
+     * Tells whether distances are computed from the coordinates on every read instead of being stored.
+     * @return true if distances are computed
+     */
+    public boolean isComputeDistances() {
+        return computeDistances;
+    }
+
+    /**
+     * Sets whether distances are computed from the coordinates on every read instead of being stored.
+     * @param computeDistances true to compute distances
+     */
+    public void setComputeDistances(boolean computeDistances) {
+        this.computeDistances = computeDistances;
+    }
+
+    /**
+     * Returns the number of computed distances every local search thread keeps cached.
+     * @return the cache size, 0 for none
+     */
+    public int getDistanceCacheSize() {
+        return distanceCacheSize;
+    }
+
+    /**
+     * Sets the number of computed distances every local search thread keeps cached, see {@link CachedEdgeMatrix}.
+     * Only used when distances are computed.
+     * @param distanceCacheSize the cache size, 0 for none
+     */
+    public void setDistanceCacheSize(int distanceCacheSize) {
+        this.distanceCacheSize = distanceCacheSize;
+    }
+
+    /**
+     * Returns which tours the local search improves.
+     * @return the local search mode
+     */
+    public LocalSearchMode getLocalSearchMode() {
+        return localSearchMode;
+    }
+
+    /**
+     * Sets which tours the local search improves.
+     * @param localSearchMode the local search mode
+     */
+    public void setLocalSearchMode(LocalSearchMode localSearchMode) {
+        this.localSearchMode = localSearchMode;
+    }
+
+    /**
+     * Returns the number of neighbours the local search tries per node when no candidate list is set.
+     * @return the local search neighbour count
+     */
+    public int getLocalSearchNeighbours() {
+        return localSearchNeighbours;
+    }
+
+    /**
+     * Sets the number of neighbours the local search tries per node when no candidate list is set.
+     * @param localSearchNeighbours the local search neighbour count
+     */
+    public void setLocalSearchNeighbours(int localSearchNeighbours) {
+        this.localSearchNeighbours = localSearchNeighbours;
+    }
+
+    /**
+     * Returns the number of threads a single solve uses.
+     * @return the thread count
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * Sets the number of threads a single solve uses.
+     * @param threadCount the thread count, 1 to solve on the calling thread
+     */
+    public void setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("At least one thread is needed, got " + threadCount);
+        }
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Returns the seed of the ants' random choices.
+     * @return the seed, 0 when every solve draws its own
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Sets the seed of the ants' random choices. Solves with the same seed and parameters find the same tours
+     * whatever their thread count, see {@link AntRandom}. Colonies of a {@link MultiColonySolver} need different
+     * seeds to search differently.
+     * @param seed the seed, 0 to draw a new one for every solve
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the number of iterations between two best tour exchanges of a multi-colony solve.
+     * @return the migration interval, 0 for never
+     */
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+
+    /**
+     * Sets the number of iterations between two best tour exchanges of a multi-colony solve, see {@link TourExchange}.
+     * @param migrationInterval the migration interval, 0 for never
+     */
+    public void setMigrationInterval(int migrationInterval) {
+        this.migrationInterval = migrationInterval;
+    }
+}
@@ -0,0 +1,19 @@
+package migros;
+
+/**
+ * Why an ACO solve ended, see {@link Solver#getStopReason()}.
+ */
+public enum StopReason {
+    /** Every configured iteration ran. */
+    ITERATIONS,
+    /** Another iteration would not have finished before the time limit. */
+    TIME_LIMIT,
+    /** The best tour did not improve for the configured number of iterations. */
+    PATIENCE,
+    /** The pheromone levels converged below the stagnation threshold. */
+    STAGNATION,
+    /** {@link Solver#requestStop()} was called. */
+    STOPPED,
+    /** The solving thread was interrupted. */
+    INTERRUPTED
+}
@@ -0,0 +1,39 @@
+package migros;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The meeting point of the colonies of a {@link MultiColonySolver}: it holds the shortest tour any colony
+ * has offered. Colonies offer their best tour and read the shared one every migration interval, without
+ * locking, so a colony never waits for another.
+ */
+public class TourExchange {
+    private final AtomicReference<BestTour> best = new AtomicReference<>();  // Shortest tour offered so far
+
+    /**
+     * Offers a tour, which replaces the shared one if it is shorter.
+     * @param tour the tour to offer, ignored if null
+     * @return true if the tour became the shared one
+     */
+    public boolean offer(BestTour tour) {
+        if (tour == null) {
+            return false;
+        }
+        BestTour current = best.get();
+        while (current == null || tour.getLength() < current.getLength()) {
+            if (best.compareAndSet(current, tour)) {
+                return true;
+            }
+            current = best.get();
+        }
+        return false;
+    }
+
+    /**
+     * Returns the shortest tour offered so far.
+     * @return the shared tour, or null if none was offered
+     */
+    public BestTour getBest() {
+        return best.get();
+    }
+}
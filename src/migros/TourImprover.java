@@ -0,0 +1,29 @@
+package migros;
+
+/**
+ * A local search stage that shortens a complete tour built by an ant.
+ * Implementations keep scratch buffers between calls and are therefore not thread safe,
+ * every thread improving tours needs its own instance.
+ */
+public interface TourImprover {
+    /**
+     * Improves a closed tour in place.
+     * The tour holds every node once followed by the start node again, the start node stays at both ends.
+     * @param tour the closed tour to improve
+     * @param distanceMatrix matrix of distances between nodes
+     * @return the length of the improved tour
+     */
+    double improve(int[] tour, EdgeMatrix distanceMatrix);
+
+    /**
+     * Returns an improver running this stage first and the given one on its result.
+     * @param next the stage to run afterwards
+     * @return the combined improver
+     */
+    default TourImprover andThen(TourImprover next) {
+        return (tour, distanceMatrix) -> {
+            improve(tour, distanceMatrix);
+            return next.improve(tour, distanceMatrix);
+        };
+    }
+}
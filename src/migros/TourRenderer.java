@@ -0,0 +1,362 @@
+package migros;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Draws a solution without a display, into a {@link BufferedImage} written as PNG, or as an SVG document:
+ * the strongest pheromone trails in gray, the best tour in blue and the nodes on top.
+ * Only the k strongest trails of every node are drawn, optionally only those above a fraction of the
+ * strongest trail, so an image of n nodes has O(n k) edges instead of n(n-1)/2.
+ * The coordinates are scaled to fit the image, keeping their aspect ratio.
+ */
+public class TourRenderer {
+    private static final int MARGIN = 20;  // Pixels kept free around the nodes
+    private static final int LABEL_LIMIT = 100;  // Largest node count whose nodes are numbered
+
+    private final int width;  // Image width in pixels
+    private final int height;  // Image height in pixels
+    private int edgesPerNode = 5;  // Strongest trails drawn per node, 0 for every trail
+    private double threshold = 0;  // Fraction of the strongest trail a trail needs to be drawn
+
+    /**
+     * Creates a renderer producing images of a given size.
+     * @param width the image width in pixels
+     * @param height the image height in pixels
+     */
+    public TourRenderer(int width, int height) {
+        if (width <= 2 * MARGIN || height <= 2 * MARGIN) {
+            throw new IllegalArgumentException("The image must be larger than " + 2 * MARGIN + " pixels per side");
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Sets how many of the strongest trails of every node are drawn.
+     * @param edgesPerNode the trail count per node, 0 to draw every trail passing the threshold
+     */
+    public void setEdgesPerNode(int edgesPerNode) {
+        this.edgesPerNode = edgesPerNode;
+    }
+
+    /**
+     * Sets the pheromone level a trail needs to be drawn, as a fraction of the strongest trail.
+     * @param threshold the fraction between 0 and 1, 0 to draw the trails whatever their level
+     */
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Writes an image of a solution, as SVG if the file name ends in .svg and as PNG otherwise.
+     * @param nodes the node locations
+     * @param pheromones the pheromone levels, or null to draw the tour alone
+     * @param tour the closed tour to draw, or null
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void write(List<Pair> nodes, EdgeMatrix pheromones, int[] tour, Path file) throws IOException {
+        if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".svg")) {
+            writeSvg(nodes, pheromones, tour, file);
+        } else {
+            writePng(nodes, pheromones, tour, file);
+        }
+    }
+
+    /**
+     * Writes an image of a solution as PNG.
+     * @param nodes the node locations
+     * @param pheromones the pheromone levels, or null to draw the tour alone
+     * @param tour the closed tour to draw, or null
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writePng(List<Pair> nodes, EdgeMatrix pheromones, int[] tour, Path file) throws IOException {
+        if (!ImageIO.write(render(nodes, pheromones, tour), "png", file.toFile())) {
+            throw new IOException("No PNG writer available");
+        }
+    }
+
+    /**
+     * Draws a solution into a new image.
+     * @param nodes the node locations
+     * @param pheromones the pheromone levels, or null to draw the tour alone
+     * @param tour the closed tour to draw, or null
+     * @return the image
+     */
+    public BufferedImage render(List<Pair> nodes, EdgeMatrix pheromones, int[] tour) {
+        Projection projection = new Projection(nodes);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+
+            // Trails, wider and darker the more pheromone they hold
+            Line2D.Double line = new Line2D.Double();
+            if (pheromones != null) {
+                int[] edges = strongestEdges(pheromones, edgesPerNode, threshold);
+                double maximum = maximumLevel(pheromones, edges);
+                for (int e = 0; e < edges.length; e += 2) {
+                    double strength = maximum > 0 ? pheromones.get(edges[e], edges[e + 1]) / maximum : 0;
+                    graphics.setColor(new Color(0, 0, 0, (int) (40 + 150 * strength)));
+                    graphics.setStroke(new BasicStroke((float) (0.5 + 2.5 * strength)));
+                    line.setLine(projection.x(edges[e]), projection.y(edges[e]),
+                            projection.x(edges[e + 1]), projection.y(edges[e + 1]));
+                    graphics.draw(line);
+                }
+            }
+
+            // Best tour
+            if (tour != null && tour.length > 1) {
+                Path2D.Double outline = new Path2D.Double(Path2D.WIND_NON_ZERO, tour.length);
+                outline.moveTo(projection.x(tour[0]), projection.y(tour[0]));
+                for (int i = 1; i < tour.length; i++) {
+                    outline.lineTo(projection.x(tour[i]), projection.y(tour[i]));
+                }
+                graphics.setColor(Color.BLUE);
+                graphics.setStroke(new BasicStroke(2f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+                graphics.draw(outline);
+            }
+
+            // Nodes, with the starting node in orange and others in gray
+            double radius = nodeRadius(nodes.size());
+            Ellipse2D.Double circle = new Ellipse2D.Double();
+            for (int i = 0; i < nodes.size(); i++) {
+                graphics.setColor(i == 0 ? Color.ORANGE : Color.GRAY);
+                circle.setFrame(projection.x(i) - radius, projection.y(i) - radius, 2 * radius, 2 * radius);
+                graphics.fill(circle);
+                if (nodes.size() <= LABEL_LIMIT) {
+                    graphics.setColor(Color.BLACK);
+                    graphics.drawString(String.valueOf(i), (float) (projection.x(i) + radius), (float) (projection.y(i) - radius));
+                }
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Writes an image of a solution as SVG, with the same content as {@link #render}.
+     * @param nodes the node locations
+     * @param pheromones the pheromone levels, or null to draw the tour alone
+     * @param tour the closed tour to draw, or null
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeSvg(List<Pair> nodes, EdgeMatrix pheromones, int[] tour, Path file) throws IOException {
+        Projection projection = new Projection(nodes);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + width + "\" height=\"" + height
+                    + "\" viewBox=\"0 0 " + width + " " + height + "\">\n");
+            out.write("<rect width=\"100%\" height=\"100%\" fill=\"white\"/>\n");
+
+            if (pheromones != null) {
+                int[] edges = strongestEdges(pheromones, edgesPerNode, threshold);
+                double maximum = maximumLevel(pheromones, edges);
+                out.write("<g stroke=\"black\">\n");
+                for (int e = 0; e < edges.length; e += 2) {
+                    double strength = maximum > 0 ? pheromones.get(edges[e], edges[e + 1]) / maximum : 0;
+                    out.write("<line x1=\"" + format(projection.x(edges[e])) + "\" y1=\"" + format(projection.y(edges[e]))
+                            + "\" x2=\"" + format(projection.x(edges[e + 1])) + "\" y2=\"" + format(projection.y(edges[e + 1]))
+                            + "\" stroke-width=\"" + format(0.5 + 2.5 * strength)
+                            + "\" stroke-opacity=\"" + format((40 + 150 * strength) / 255) + "\"/>\n");
+                }
+                out.write("</g>\n");
+            }
+
+            if (tour != null && tour.length > 1) {
+                out.write("<polyline fill=\"none\" stroke=\"blue\" stroke-width=\"2\" stroke-linejoin=\"round\" points=\"");
+                for (int i = 0; i < tour.length; i++) {
+                    out.write((i > 0 ? " " : "") + format(projection.x(tour[i])) + "," + format(projection.y(tour[i])));
+                }
+                out.write("\"/>\n");
+            }
+
+            double radius = nodeRadius(nodes.size());
+            for (int i = 0; i < nodes.size(); i++) {
+                out.write("<circle cx=\"" + format(projection.x(i)) + "\" cy=\"" + format(projection.y(i)) + "\" r=\""
+                        + format(radius) + "\" fill=\"" + (i == 0 ? "orange" : "gray") + "\"/>\n");
+                if (nodes.size() <= LABEL_LIMIT) {
+                    out.write("<text x=\"" + format(projection.x(i) + radius) + "\" y=\"" + format(projection.y(i) - radius)
+                            + "\" font-size=\"12\">" + i + "</text>\n");
+                }
+            }
+            out.write("</svg>\n");
+        }
+    }
+
+    /**
+     * Selects the trails worth drawing: the k strongest trails of every node, among those holding at least
+     * a fraction of the strongest level. Costs one read per edge and O(k) per kept candidate.
+     * @param pheromones the pheromone levels
+     * @param edgesPerNode the trails kept per node, 0 to keep every trail passing the threshold
+     * @param threshold the fraction of the strongest level a trail needs, 0 for none
+     * @return the selected edges as consecutive (from, to) pairs with from &lt; to, each edge once
+     */
+    public static int[] strongestEdges(EdgeMatrix pheromones, int edgesPerNode, double threshold) {
+        int nodeCount = pheromones.getNodeCount();
+        double cutoff = 0;
+        if (threshold > 0) {
+            double maximum = 0;
+            for (int i = 0; i < nodeCount; i++) {
+                for (int j = i + 1; j < nodeCount; j++) {
+                    maximum = Math.max(maximum, pheromones.get(i, j));
+                }
+            }
+            cutoff = threshold * maximum;
+        }
+
+        int k = edgesPerNode > 0 ? Math.min(edgesPerNode, nodeCount - 1) : nodeCount - 1;
+        long[] keys = new long[Math.max(16, nodeCount * Math.min(k, 8))];  // Edges as (min << 32 | max), grown as needed
+        int keyCount = 0;
+        int[] rowNodes = new int[Math.max(k, 0)];
+        double[] rowLevels = new double[Math.max(k, 0)];
+        for (int i = 0; i < nodeCount && k > 0; i++) {
+            // Insertion into the sorted row of the k strongest trails of node i
+            int found = 0;
+            for (int j = 0; j < nodeCount; j++) {
+                double level = pheromones.get(i, j);
+                if (j == i || level < cutoff || (found == k && level <= rowLevels[k - 1])) {
+                    continue;
+                }
+                int position = found < k ? found++ : k - 1;
+                while (position > 0 && rowLevels[position - 1] < level) {
+                    rowLevels[position] = rowLevels[position - 1];
+                    rowNodes[position] = rowNodes[position - 1];
+                    position--;
+                }
+                rowLevels[position] = level;
+                rowNodes[position] = j;
+            }
+            if (keyCount + found > keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(keys.length * 2, keyCount + found));
+            }
+            for (int r = 0; r < found; r++) {
+                int j = rowNodes[r];
+                keys[keyCount++] = i < j ? (long) i << 32 | j : (long) j << 32 | i;
+            }
+        }
+
+        // Both nodes of an edge may select it, keep it once
+        Arrays.sort(keys, 0, keyCount);
+        int[] edges = new int[2 * keyCount];
+        int edgeCount = 0;
+        for (int e = 0; e < keyCount; e++) {
+            if (e == 0 || keys[e] != keys[e - 1]) {
+                edges[2 * edgeCount] = (int) (keys[e] >>> 32);
+                edges[2 * edgeCount + 1] = (int) keys[e];
+                edgeCount++;
+            }
+        }
+        return Arrays.copyOf(edges, 2 * edgeCount);
+    }
+
+    /**
+     * Returns the highest pheromone level among selected edges.
+     * @param pheromones the pheromone levels
+     * @param edges the edges as consecutive (from, to) pairs
+     * @return the highest level, 0 if there is no edge
+     */
+    private static double maximumLevel(EdgeMatrix pheromones, int[] edges) {
+        double maximum = 0;
+        for (int e = 0; e < edges.length; e += 2) {
+            maximum = Math.max(maximum, pheromones.get(edges[e], edges[e + 1]));
+        }
+        return maximum;
+    }
+
+    /**
+     * Returns the radius of the node circles, smaller as the nodes get more numerous.
+     * @param nodeCount the number of nodes
+     * @return the radius in pixels
+     */
+    private static double nodeRadius(int nodeCount) {
+        return nodeCount <= LABEL_LIMIT ? 5 : nodeCount <= 10_000 ? 2.5 : 1;
+    }
+
+    /**
+     * Formats an SVG coordinate with one decimal.
+     * @param value the value to format
+     * @return the formatted value
+     */
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    /**
+     * Maps node coordinates to image pixels: the bounding box of the nodes is scaled into the image
+     * without distortion and centred, with the y-axis pointing up as in the coordinate files.
+     */
+    private final class Projection {
+        private final List<Pair> nodes;  // Node locations
+        private final double minX;  // Smallest x-coordinate
+        private final double minY;  // Smallest y-coordinate
+        private final double scale;  // Pixels per coordinate unit
+        private final double left;  // Pixel column of minX, centring the nodes horizontally
+        private final double bottom;  // Pixel row of minY, centring the nodes vertically
+
+        /**
+         * Computes the projection of a set of nodes.
+         * @param nodes the node locations
+         */
+        Projection(List<Pair> nodes) {
+            this.nodes = nodes;
+            double lowX = Double.MAX_VALUE;
+            double highX = -Double.MAX_VALUE;
+            double lowY = Double.MAX_VALUE;
+            double highY = -Double.MAX_VALUE;
+            for (Pair node : nodes) {
+                lowX = Math.min(lowX, node.getX());
+                highX = Math.max(highX, node.getX());
+                lowY = Math.min(lowY, node.getY());
+                highY = Math.max(highY, node.getY());
+            }
+            this.minX = nodes.isEmpty() ? 0 : lowX;
+            this.minY = nodes.isEmpty() ? 0 : lowY;
+            double spanX = nodes.isEmpty() ? 0 : highX - lowX;
+            double spanY = nodes.isEmpty() ? 0 : highY - lowY;
+            double fit = Math.min(spanX > 0 ? (width - 2.0 * MARGIN) / spanX : Double.POSITIVE_INFINITY,
+                    spanY > 0 ? (height - 2.0 * MARGIN) / spanY : Double.POSITIVE_INFINITY);
+            this.scale = Double.isInfinite(fit) ? 0 : fit;  // All nodes in one place are drawn in the centre
+            this.left = (width - spanX * scale) / 2;
+            this.bottom = height - (height - spanY * scale) / 2;
+        }
+
+        /**
+         * Returns the horizontal pixel position of a node.
+         * @param node the node index
+         * @return the x pixel
+         */
+        double x(int node) {
+            return left + (nodes.get(node).getX() - minX) * scale;
+        }
+
+        /**
+         * Returns the vertical pixel position of a node.
+         * @param node the node index
+         * @return the y pixel, counted from the top
+         */
+        double y(int node) {
+            return bottom - (nodes.get(node).getY() - minY) * scale;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package migros;
+
+import java.util.Arrays;
+
+/**
+ * A symmetric {@link EdgeMatrix} storing only the upper triangle, diagonal included, as packed doubles.
+ * It needs a little over half the memory of a {@link FlatEdgeMatrix}.
+ */
+public class TriangularEdgeMatrix implements EdgeMatrix {
+    private final int nodeCount;  // Number of rows and columns
+    private final double[] values;  // Packed upper triangle, row by row
+
+    /**
+     * Creates a matrix with every value set to 0.
+     * @param nodeCount the number of nodes
+     */
+    public TriangularEdgeMatrix(int nodeCount) {
+        this.nodeCount = nodeCount;
+        this.values = new double[MatrixStorage.checkedArraySize(MatrixStorage.triangularSize(nodeCount), "Triangular")];
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public double get(int from, int to) {
+        return values[(int) MatrixStorage.triangularIndex(nodeCount, from, to)];
+    }
+
+    @Override
+    public void set(int from, int to, double value) {
+        values[(int) MatrixStorage.triangularIndex(nodeCount, from, to)] = value;
+    }
+
+    @Override
+    public void add(int from, int to, double delta) {
+        values[(int) MatrixStorage.triangularIndex(nodeCount, from, to)] += delta;
+    }
+
+    @Override
+    public void scale(double factor) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] *= factor;
+        }
+    }
+
+    @Override
+    public void fill(double value) {
+        Arrays.fill(values, value);
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package migros;
+
+/**
+ * Local search exchanging two edges of the tour for two shorter ones (2-opt).
+ * Only moves adding an edge between a node and one of its nearest neighbours are tried.
+ */
+public class TwoOptImprover extends NeighbourListImprover {
+
+    /**
+     * Creates a 2-opt improver trying the nodes of the given candidate list.
+     * @param candidateList the nearest neighbours of every node
+     */
+    public TwoOptImprover(CandidateList candidateList) {
+        super(candidateList);
+    }
+
+    @Override
+    protected boolean improveNode(int a) {
+        for (int direction = 0; direction < 2; direction++) {
+            int b = direction == 0 ? next(a) : previous(a);
+            double removedAB = distance(a, b);
+            for (int r = 0; r < candidateList.getCandidateCount(); r++) {
+                int c = candidateList.getCandidate(a, r);
+                double addedAC = distance(a, c);
+                // Neighbours are sorted, no later one can shorten the tour either
+                if (addedAC >= removedAB) {
+                    break;
+                }
+                int d = direction == 0 ? next(c) : previous(c);
+                if (c == b || d == a) {
+                    continue;
+                }
+                double gain = removedAB + distance(c, d) - addedAC - distance(b, d);
+                if (gain > EPSILON) {
+                    twoOptMove(a, b, c, d);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
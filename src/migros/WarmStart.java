@@ -0,0 +1,167 @@
+package migros;
+
+/**
+ * What a colony has learned about an instance: its pheromone levels and its best tour. A warm start taken
+ * from one solve seeds another with {@link Solver#warmStart}, so re-optimising after a small change starts
+ * from the previous answer instead of uniform pheromone. {@link #withNodeAdded} and {@link #withNodeRemoved}
+ * carry it over to the instance derived with the same change.
+ */
+public final class WarmStart {
+    private final EdgeMatrix pheromones;  // Real pheromone levels, a private copy
+    private final int[] tour;  // Closed tour starting and ending at node 0, null if none
+
+    /**
+     * Creates a warm start, taking ownership of its arguments.
+     * @param pheromones the pheromone levels
+     * @param tour the closed tour, or null
+     */
+    private WarmStart(EdgeMatrix pheromones, int[] tour) {
+        this.pheromones = pheromones;
+        this.tour = tour;
+    }
+
+    /**
+     * Takes a snapshot of the pheromone levels and the best tour of a solver.
+     * Call it once the solve has ended, the levels of a running solve change while they are copied.
+     * @param solver the solver to copy from
+     * @return the warm start
+     */
+    public static WarmStart of(Solver solver) {
+        EdgeMatrix source = solver.getPheromoneMatrix();
+        EdgeMatrix pheromones = createMatrix(source.getNodeCount(), source.isSymmetric());
+        int nodeCount = source.getNodeCount();
+        for (int i = 0; i < nodeCount; i++) {
+            for (int j = pheromones.isSymmetric() ? i : 0; j < nodeCount; j++) {
+                pheromones.set(i, j, source.get(i, j));
+            }
+        }
+        BestTour best = solver.getCurrentBest();
+        return new WarmStart(pheromones, best == null ? null : best.getPath());
+    }
+
+    /**
+     * Returns the number of nodes of the instance the warm start belongs to.
+     * @return the node count
+     */
+    public int getNodeCount() {
+        return pheromones.getNodeCount();
+    }
+
+    /**
+     * Returns the pheromone level of an edge.
+     * @param from the first node of the edge
+     * @param to the second node of the edge
+     * @return the pheromone level
+     */
+    public double getPheromone(int from, int to) {
+        return pheromones.get(from, to);
+    }
+
+    /**
+     * Returns the tour of the warm start.
+     * @return a copy of the closed tour, or null if there is none
+     */
+    public int[] getTour() {
+        return tour == null ? null : tour.clone();
+    }
+
+    /**
+     * Carries the warm start over to the instance with one more node, see {@link ProblemInstance#withNodeAdded}.
+     * The edges of the new node start at the mean pheromone level of the other edges, and the node is inserted
+     * into the tour where it lengthens it the least.
+     * @param instance the instance with the node added, whose last node is the new one
+     * @return the new warm start, this one is left unchanged
+     */
+    public WarmStart withNodeAdded(ProblemInstance instance) {
+        int nodeCount = pheromones.getNodeCount();
+        if (instance.getNodeCount() != nodeCount + 1) {
+            throw new IllegalArgumentException("Expected an instance of " + (nodeCount + 1) + " nodes, got " + instance.getNodeCount());
+        }
+        EdgeMatrix added = createMatrix(nodeCount + 1, pheromones.isSymmetric());
+        ProblemInstance.copyEdges(pheromones, added, -1);
+        double level = meanLevel();
+        for (int i = 0; i <= nodeCount; i++) {
+            added.set(i, nodeCount, level);
+            added.set(nodeCount, i, level);
+        }
+        return new WarmStart(added, tour == null ? null : insertCheapest(tour, nodeCount, instance.getDistanceMatrix()));
+    }
+
+    /**
+     * Carries the warm start over to the instance without one node, see {@link ProblemInstance#withNodeRemoved}.
+     * The node is cut out of the tour, joining its two neighbours.
+     * @param node the index of the removed node
+     * @return the new warm start, this one is left unchanged
+     */
+    public WarmStart withNodeRemoved(int node) {
+        int nodeCount = pheromones.getNodeCount();
+        if (node <= 0 || node >= nodeCount) {
+            throw new IllegalArgumentException("Node " + node + " cannot be removed, tours start at node 0");
+        }
+        EdgeMatrix removed = createMatrix(nodeCount - 1, pheromones.isSymmetric());
+        ProblemInstance.copyEdges(pheromones, removed, node);
+        int[] newTour = null;
+        if (tour != null) {
+            newTour = new int[tour.length - 1];
+            int k = 0;
+            for (int stop : tour) {
+                if (stop != node) {
+                    newTour[k++] = stop < node ? stop : stop - 1;
+                }
+            }
+        }
+        return new WarmStart(removed, newTour);
+    }
+
+    /**
+     * Calculates the mean pheromone level of the edges between distinct nodes.
+     * @return the mean level, 1 when there are no such edges
+     */
+    private double meanLevel() {
+        int nodeCount = pheromones.getNodeCount();
+        double total = 0;
+        long count = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            for (int j = i + 1; j < nodeCount; j++) {
+                total += pheromones.get(i, j);
+                count++;
+            }
+        }
+        return count == 0 ? 1.0 : total / count;
+    }
+
+    /**
+     * Inserts a node into a closed tour between the two consecutive stops where it adds the least distance.
+     * @param tour the closed tour
+     * @param node the node to insert
+     * @param distanceMatrix the distances of the instance containing the node
+     * @return a new closed tour one stop longer
+     */
+    private static int[] insertCheapest(int[] tour, int node, EdgeMatrix distanceMatrix) {
+        int bestPosition = 1;
+        double bestIncrease = Double.MAX_VALUE;
+        for (int k = 0; k < tour.length - 1; k++) {
+            double increase = distanceMatrix.get(tour[k], node) + distanceMatrix.get(node, tour[k + 1])
+                    - distanceMatrix.get(tour[k], tour[k + 1]);
+            if (increase < bestIncrease) {
+                bestIncrease = increase;
+                bestPosition = k + 1;
+            }
+        }
+        int[] newTour = new int[tour.length + 1];
+        System.arraycopy(tour, 0, newTour, 0, bestPosition);
+        newTour[bestPosition] = node;
+        System.arraycopy(tour, bestPosition, newTour, bestPosition + 1, tour.length - bestPosition);
+        return newTour;
+    }
+
+    /**
+     * Allocates the matrix holding a copy of pheromone levels.
+     * @param nodeCount the number of nodes
+     * @param symmetric whether both directions of an edge share a level
+     * @return a packed triangle for symmetric levels, a full matrix otherwise
+     */
+    private static EdgeMatrix createMatrix(int nodeCount, boolean symmetric) {
+        return symmetric ? new TriangularEdgeMatrix(nodeCount) : new FlatEdgeMatrix(nodeCount);
+    }
+}